@@ -1,11 +1,15 @@
 package com.playtomic.tests.wallet.api;
 
 import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.domain.TransactionPage;
+import com.playtomic.tests.wallet.domain.TransactionSummary;
+import com.playtomic.tests.wallet.dto.Hold;
 import com.playtomic.tests.wallet.dto.Wallet;
 import com.playtomic.tests.wallet.service.WalletService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,11 +17,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 
 @RestController
 public class WalletController {
@@ -65,4 +72,50 @@ public class WalletController {
 
         walletService.chargeWallet(walletId, amount);
     }
+
+    @PostMapping("/wallet/{wallet_id}/hold/{amount}")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Hold holdAmount(@PathVariable("wallet_id") String walletId, @PathVariable BigDecimal amount,
+                           @RequestParam(value = "time_to_live_seconds", defaultValue = "900") long timeToLiveSeconds) {
+        log.info("Holding in wallet with id " + walletId + " an amount of " + amount);
+
+        return walletService.holdAmount(walletId, amount, Duration.ofSeconds(timeToLiveSeconds));
+    }
+
+    @PatchMapping("/wallet/hold/{hold_id}/capture")
+    @ResponseStatus(HttpStatus.OK)
+    public void captureHold(@PathVariable("hold_id") String holdId) {
+        log.info("Capturing hold with id " + holdId);
+
+        walletService.captureHold(holdId);
+    }
+
+    @PatchMapping("/wallet/hold/{hold_id}/release")
+    @ResponseStatus(HttpStatus.OK)
+    public void releaseHold(@PathVariable("hold_id") String holdId) {
+        log.info("Releasing hold with id " + holdId);
+
+        walletService.releaseHold(holdId);
+    }
+
+    @GetMapping("/wallet/{wallet_id}/transactions")
+    @ResponseStatus(HttpStatus.OK)
+    public TransactionPage getTransactions(@PathVariable("wallet_id") String walletId,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        log.info("Getting transactions of wallet with id " + walletId);
+
+        return walletService.getTransactions(walletId, cursor, limit);
+    }
+
+    @GetMapping("/wallet/{wallet_id}/transactions/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public TransactionSummary getTransactionSummary(
+            @PathVariable("wallet_id") String walletId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Getting transaction summary of wallet with id " + walletId);
+
+        return walletService.getTransactionSummary(walletId, from, to);
+    }
 }
@@ -0,0 +1,190 @@
+package com.playtomic.tests.wallet.api.consistency;
+
+import com.playtomic.tests.wallet.repository.routing.ReplicaReadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Gives clients read-your-writes consistency on top of replica reads.
+ *
+ * A response to a request that committed a write carries a token with the time of that write, signed with an HMAC
+ * keyed by wallet.datasource.replica.token-secret. Clients send the token back on their next requests, and while it
+ * is younger than wallet.datasource.replica.max-staleness-ms (the longest lag expected from a replica) their reads are
+ * served by the primary. Tokens with a bad signature are ignored, so clients cannot make one up to pin their reads to
+ * the primary. A token up to max-staleness-ms in the future is still honored, since it may come from an instance
+ * whose clock is ahead of this one.
+ *
+ * All instances must share the secret to accept each other's tokens. Without one, a random secret is generated and
+ * tokens are only accepted by the instance that issued them.
+ */
+@Component
+@Profile("replica")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String TOKEN_HEADER = "Read-Your-Writes-Token";
+
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    private static final int GENERATED_SECRET_LENGTH = 32;
+
+    private final Logger log = LoggerFactory.getLogger(ReadYourWritesFilter.class);
+
+    private final long maxStalenessInMillis;
+    private final SecretKeySpec signatureKey;
+
+    @Autowired
+    public ReadYourWritesFilter(@Value("${wallet.datasource.replica.max-staleness-ms:1000}") long maxStalenessInMillis,
+                                @Value("${wallet.datasource.replica.token-secret:}") String tokenSecret) {
+        this.maxStalenessInMillis = maxStalenessInMillis;
+
+        byte[] secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+
+        if (secret.length == 0) {
+            log.warn("No wallet.datasource.replica.token-secret set, read-your-writes tokens are only accepted by this "
+                     + "instance");
+
+            secret = new byte[GENERATED_SECRET_LENGTH];
+            new SecureRandom().nextBytes(secret);
+        }
+
+        this.signatureKey = new SecretKeySpec(secret, SIGNATURE_ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReplicaReadContext.startRequest(isPrimaryRequired(request.getHeader(TOKEN_HEADER)));
+
+        try {
+            TokenResponseWrapper responseWrapper = new TokenResponseWrapper(response, this);
+            filterChain.doFilter(request, responseWrapper);
+            responseWrapper.addTokenHeader();
+        } finally {
+            ReplicaReadContext.endRequest();
+        }
+    }
+
+    boolean isPrimaryRequired(String token) {
+        if (token == null) {
+            return false;
+        }
+
+        int separatorIndex = token.indexOf('.');
+
+        if (separatorIndex < 0) {
+            return false;
+        }
+
+        String writeTime = token.substring(0, separatorIndex);
+        byte[] signature = token.substring(separatorIndex + 1).getBytes(StandardCharsets.US_ASCII);
+
+        if (!MessageDigest.isEqual(signature, sign(writeTime).getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+
+        try {
+            long tokenAgeInMillis = System.currentTimeMillis() - Long.parseLong(writeTime);
+
+            return Math.abs(tokenAgeInMillis) < maxStalenessInMillis;
+        } catch (NumberFormatException numberFormatException) {
+            return false;
+        }
+    }
+
+    String createToken(long writeTime) {
+        String formattedWriteTime = String.valueOf(writeTime);
+
+        return formattedWriteTime + "." + sign(formattedWriteTime);
+    }
+
+    private String sign(String writeTime) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(signatureKey);
+
+            return Base64.getUrlEncoder().withoutPadding()
+                         .encodeToString(mac.doFinal(writeTime.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException generalSecurityException) {
+            throw new IllegalStateException("Cannot sign read-your-writes tokens", generalSecurityException);
+        }
+    }
+
+    /**
+     * Adds the token right before the response is committed, once the write is known to be committed too.
+     */
+    private static class TokenResponseWrapper extends HttpServletResponseWrapper {
+        private final ReadYourWritesFilter filter;
+        private boolean tokenAdded;
+
+        private TokenResponseWrapper(HttpServletResponse response, ReadYourWritesFilter filter) {
+            super(response);
+            this.filter = filter;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTokenHeader();
+
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTokenHeader();
+
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTokenHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int statusCode) throws IOException {
+            addTokenHeader();
+            super.sendError(statusCode);
+        }
+
+        @Override
+        public void sendError(int statusCode, String message) throws IOException {
+            addTokenHeader();
+            super.sendError(statusCode, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTokenHeader();
+            super.sendRedirect(location);
+        }
+
+        private void addTokenHeader() {
+            Long lastCommittedWriteTime = ReplicaReadContext.getLastCommittedWriteTime();
+
+            if (!tokenAdded && lastCommittedWriteTime != null && !isCommitted()) {
+                setHeader(TOKEN_HEADER, filter.createToken(lastCommittedWriteTime));
+                tokenAdded = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts the {@link ConcurrencyLimitFilter} in front of the wallet endpoints, unless wallet.limit.enabled is false.
+ *
+ * The limits are published as the wallet.limit.concurrency, wallet.limit.in.flight and wallet.limit.rejections
+ * metrics, tagged with the operation (read or write).
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+            HttpMessageConverters messageConverters) {
+        ConcurrencyLimiter readLimiter = createLimiter(properties, properties.getRead(), "read", meterRegistry);
+        ConcurrencyLimiter writeLimiter = createLimiter(properties, properties.getWrite(), "write", meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readLimiter, writeLimiter, properties.getRetryAfterSeconds(),
+                                           messageConverters.getConverters()));
+        registration.addUrlPatterns("/wallet", "/wallet/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+
+    private ConcurrencyLimiter createLimiter(ConcurrencyLimitProperties properties,
+                                             ConcurrencyLimitProperties.LimitProperties limitProperties,
+                                             String operation, MeterRegistry meterRegistry) {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientConcurrencyLimit(
+                limitProperties.getInitialLimit(), limitProperties.getMinLimit(), limitProperties.getMaxLimit(),
+                properties.getRttTolerance(), properties.getSampleWindow(), properties.getMinRttInterval(),
+                properties.getMinRttSamples(), System.nanoTime()));
+
+        Gauge.builder("wallet.limit.concurrency", limiter, ConcurrencyLimiter::getLimit)
+             .tag("operation", operation)
+             .register(meterRegistry);
+        Gauge.builder("wallet.limit.in.flight", limiter, ConcurrencyLimiter::getNumberOfRequestsInFlight)
+             .tag("operation", operation)
+             .register(meterRegistry);
+        FunctionCounter.builder("wallet.limit.rejections", limiter, ConcurrencyLimiter::getNumberOfRejections)
+                       .tag("operation", operation)
+                       .register(meterRegistry);
+
+        return limiter;
+    }
+}
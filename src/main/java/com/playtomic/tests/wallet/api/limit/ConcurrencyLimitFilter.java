@@ -0,0 +1,105 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import com.playtomic.tests.wallet.error.TechnicalError;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sheds the requests above the concurrency limit with an immediate 503 and a Retry-After header, instead of letting
+ * them queue behind the wallet lock and the Tomcat thread pool.
+ *
+ * Reads (GET and HEAD) and writes have separate limiters: writes are serialized by the wallet lock and saturate much
+ * sooner than reads, and must not take the capacity of reads down with them.
+ *
+ * The body of the 503 is written with the first message converter that can produce a media type the client accepts,
+ * as the controllers do, and left empty if there is none.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+    private final long retryAfterSeconds;
+    private final List<HttpMessageConverter<?>> messageConverters;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter readLimiter, ConcurrencyLimiter writeLimiter,
+                                  long retryAfterSeconds, List<HttpMessageConverter<?>> messageConverters) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.messageConverters = messageConverters;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()) {
+            reject(request, response);
+
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(startTime);
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        TechnicalError error = new TechnicalError(new TechnicalException("Too many requests in progress, retry later"));
+
+        for (MediaType acceptedMediaType : getAcceptedMediaTypes(request)) {
+            for (HttpMessageConverter<?> messageConverter : messageConverters) {
+                if (messageConverter.canWrite(TechnicalError.class, acceptedMediaType)) {
+                    ((HttpMessageConverter<TechnicalError>) messageConverter).write(
+                            error, acceptedMediaType.isConcrete() ? acceptedMediaType : null,
+                            new ServletServerHttpResponse(response));
+
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<MediaType> getAcceptedMediaTypes(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+
+        if (accept == null || accept.trim().isEmpty()) {
+            return Collections.singletonList(MediaType.ALL);
+        }
+
+        try {
+            List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+
+            return acceptedMediaTypes;
+        } catch (InvalidMediaTypeException invalidMediaTypeException) {
+            return Collections.singletonList(MediaType.ALL);
+        }
+    }
+}
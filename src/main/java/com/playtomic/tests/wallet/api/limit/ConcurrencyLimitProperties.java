@@ -0,0 +1,32 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "wallet.limit")
+public class ConcurrencyLimitProperties {
+    private long retryAfterSeconds = 1;
+    private double rttTolerance = 1.5;
+    private Duration sampleWindow = Duration.ofMillis(250);
+    private Duration minRttInterval = Duration.ofSeconds(60);
+    private int minRttSamples = 50;
+    private LimitProperties read = new LimitProperties(64, 8, 200);
+    private LimitProperties write = new LimitProperties(8, 2, 64);
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LimitProperties {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+    }
+}
@@ -0,0 +1,56 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets requests through while fewer than the current limit are in flight.
+ */
+public class ConcurrencyLimiter {
+    private final GradientConcurrencyLimit limit;
+    private final AtomicInteger numberOfRequestsInFlight = new AtomicInteger();
+    private final LongAdder numberOfRejections = new LongAdder();
+
+    public ConcurrencyLimiter(GradientConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return true if the request can go on, in which case {@link #release(long)} must be called once it completes
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = numberOfRequestsInFlight.get();
+
+            if (current >= limit.getLimit()) {
+                numberOfRejections.increment();
+
+                return false;
+            }
+
+            if (numberOfRequestsInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param startTime the {@link System#nanoTime()} at which the request was let through
+     */
+    public void release(long startTime) {
+        numberOfRequestsInFlight.decrementAndGet();
+        limit.onSample(startTime, System.nanoTime());
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getNumberOfRequestsInFlight() {
+        return numberOfRequestsInFlight.get();
+    }
+
+    public long getNumberOfRejections() {
+        return numberOfRejections.sum();
+    }
+}
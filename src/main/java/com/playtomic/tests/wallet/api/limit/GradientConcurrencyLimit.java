@@ -0,0 +1,130 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Concurrency limit that follows the latency of the requests it lets through.
+ *
+ * The limit alternates between two phases:
+ * <ul>
+ * <li>Measuring the latency without load: the limit is pinned to its minimum until enough requests admitted in this
+ * phase complete, and their median latency becomes the reference latency.</li>
+ * <li>Adapting: at the end of every sample window the limit is multiplied by the gradient between the reference
+ * latency (times the tolerance) and the average latency of the window, clamped to [0.5, 2], plus a headroom of the
+ * square root of the limit. The limit grows while requests are as fast as without load and shrinks as soon as they
+ * start queueing. The reference latency is measured again every minRttInterval, so it does not drift up with the
+ * load it is supposed to detect.</li>
+ * </ul>
+ *
+ * Times are in nanos from {@link System#nanoTime()}.
+ */
+public class GradientConcurrencyLimit {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double MAX_GRADIENT = 2.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final long sampleWindowInNanos;
+    private final long minRttIntervalInNanos;
+    private final long[] minRttSamples;
+
+    private volatile int limit;
+    private volatile boolean measuringMinRtt = true;
+
+    private long minRttMeasurementStartTime;
+    private int numberOfMinRttSamples;
+    private long minRttInNanos;
+    private long nextMinRttMeasurementTime;
+    private long windowEndTime;
+    private long windowRttSumInNanos;
+    private int windowSize;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+                                    Duration sampleWindow, Duration minRttInterval, int minRttSampleCount,
+                                    long startTime) {
+        Assert.isTrue(0 < minLimit && minLimit <= initialLimit && initialLimit <= maxLimit,
+                      "Limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        Assert.isTrue(rttTolerance >= 1, "rttTolerance must be at least 1");
+        Assert.isTrue(minRttSampleCount > 0, "minRttSampleCount must be positive");
+
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.sampleWindowInNanos = sampleWindow.toNanos();
+        this.minRttIntervalInNanos = minRttInterval.toNanos();
+        this.minRttSamples = new long[minRttSampleCount];
+        this.minRttMeasurementStartTime = startTime;
+    }
+
+    public int getLimit() {
+        return measuringMinRtt ? minLimit : limit;
+    }
+
+    public boolean isMeasuringMinRtt() {
+        return measuringMinRtt;
+    }
+
+    /**
+     * Records the latency of a request that was let through.
+     */
+    public synchronized void onSample(long startTime, long endTime) {
+        long rttInNanos = endTime - startTime;
+
+        if (measuringMinRtt) {
+            // Requests admitted before the measurement started ran under the previous, higher, limit
+            if (startTime >= minRttMeasurementStartTime) {
+                recordMinRttSample(rttInNanos, endTime);
+            }
+
+            return;
+        }
+
+        windowRttSumInNanos += rttInNanos;
+        windowSize++;
+
+        if (endTime < windowEndTime) {
+            return;
+        }
+
+        double averageRttInNanos = (double) windowRttSumInNanos / windowSize;
+        double gradient = Math.max(MIN_GRADIENT,
+                                   Math.min(MAX_GRADIENT, rttTolerance * minRttInNanos / averageRttInNanos));
+        long newLimit = Math.round(limit * gradient + Math.sqrt(limit));
+
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, newLimit));
+        startWindow(endTime);
+
+        if (endTime >= nextMinRttMeasurementTime) {
+            measuringMinRtt = true;
+            minRttMeasurementStartTime = endTime;
+        }
+    }
+
+    private void recordMinRttSample(long rttInNanos, long endTime) {
+        minRttSamples[numberOfMinRttSamples++] = rttInNanos;
+
+        if (numberOfMinRttSamples < minRttSamples.length) {
+            return;
+        }
+
+        long[] sortedSamples = minRttSamples.clone();
+        Arrays.sort(sortedSamples);
+
+        minRttInNanos = Math.max(1, sortedSamples[sortedSamples.length / 2]);
+        numberOfMinRttSamples = 0;
+        nextMinRttMeasurementTime = endTime + minRttIntervalInNanos;
+        startWindow(endTime);
+        measuringMinRtt = false;
+    }
+
+    private void startWindow(long startTime) {
+        windowEndTime = startTime + sampleWindowInNanos;
+        windowRttSumInNanos = 0;
+        windowSize = 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.playtomic.tests.wallet.api.management;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
+import org.springframework.boot.actuate.autoconfigure.web.ManagementContextConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.ManagementContextType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts the {@link ManagementTokenFilter} in front of the admin endpoints (hotwallets and shards), in the context that
+ * serves the actuator: the child context of the management port, or the main one if they share the port.
+ *
+ * Health and metrics stay open, the management port is only bound to the loopback address.
+ */
+@ManagementContextConfiguration(ManagementContextType.ANY)
+public class ManagementSecurityConfiguration {
+    private static final String[] ADMIN_ENDPOINT_IDS = {"hotwallets", "shards"};
+
+    @Bean
+    public FilterRegistrationBean<ManagementTokenFilter> managementTokenFilter(
+            WebEndpointProperties webEndpointProperties, @Value("${wallet.management.token:}") String token) {
+        FilterRegistrationBean<ManagementTokenFilter> registration = new FilterRegistrationBean<>(
+                new ManagementTokenFilter(token));
+
+        for (String endpointId : ADMIN_ENDPOINT_IDS) {
+            String endpointPath = webEndpointProperties.getBasePath() + "/" + endpointId;
+            registration.addUrlPatterns(endpointPath, endpointPath + "/*");
+        }
+
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+}
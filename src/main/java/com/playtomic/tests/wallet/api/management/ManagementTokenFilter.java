@@ -0,0 +1,60 @@
+package com.playtomic.tests.wallet.api.management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Only lets through requests to the admin endpoints that carry the token of wallet.management.token as a bearer
+ * token. Without a token configured every request is refused, so the endpoints are never open by default.
+ */
+public class ManagementTokenFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final Logger log = LoggerFactory.getLogger(ManagementTokenFilter.class);
+
+    private final byte[] token;
+
+    public ManagementTokenFilter(String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+
+        if (this.token.length == 0) {
+            log.warn("No wallet.management.token set, the admin endpoints refuse every request");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isAuthorized(request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            log.warn("Unauthorized request to admin endpoint " + request.getRequestURI());
+
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    boolean isAuthorized(String authorization) {
+        if (token.length == 0 || authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+
+        byte[] requestToken = authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8);
+
+        return MessageDigest.isEqual(token, requestToken);
+    }
+}
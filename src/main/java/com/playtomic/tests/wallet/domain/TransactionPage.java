@@ -0,0 +1,22 @@
+package com.playtomic.tests.wallet.domain;
+
+import com.playtomic.tests.wallet.dto.WalletTransaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page of the history of a wallet, newest first. The next cursor is null on the last page.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+    private List<WalletTransaction> transactions;
+
+    private String nextCursor;
+}
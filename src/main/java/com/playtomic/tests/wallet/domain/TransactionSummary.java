@@ -0,0 +1,27 @@
+package com.playtomic.tests.wallet.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSummary {
+    private String walletId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private BigDecimal totalRecharged;
+
+    private BigDecimal totalCharged;
+
+    private long numberOfTransactions;
+}
@@ -0,0 +1,52 @@
+package com.playtomic.tests.wallet.dto;
+
+import com.sun.istack.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Amount of a wallet reserved until it is captured, released or expires.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_hold", indexes = @Index(name = "idx_wallet_hold_status", columnList = "status, id"))
+public class Hold {
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    private String id;
+
+    @NotNull
+    @Column(name = "wallet_id")
+    private String walletId;
+
+    @NotNull
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private HoldStatus status;
+
+    @NotNull
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+}
@@ -0,0 +1,8 @@
+package com.playtomic.tests.wallet.dto;
+
+public enum HoldStatus {
+    OPEN,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
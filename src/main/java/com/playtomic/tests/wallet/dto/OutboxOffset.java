@@ -0,0 +1,29 @@
+package com.playtomic.tests.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Id of the last outbox event delivered to a sink.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_outbox_offset")
+public class OutboxOffset {
+    @Id
+    @Column(name = "sink")
+    private String sink;
+
+    @Column(name = "last_delivered_id")
+    private Long lastDeliveredId;
+}
@@ -0,0 +1,47 @@
+package com.playtomic.tests.wallet.dto;
+
+import com.sun.istack.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Shard wallets are spread over, with how far the move of wallets to it went while it is being added.
+ *
+ * Wallets of the shards are moved in the order of their names and ids, so the last source shard and wallet id are
+ * enough to resume the move.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_shard")
+public class ShardMembership {
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ShardStatus status;
+
+    @Column(name = "rebalance_source_shard")
+    private String rebalanceSourceShard;
+
+    @Column(name = "rebalance_last_wallet_id")
+    private String rebalanceLastWalletId;
+
+    @NotNull
+    @Column(name = "number_of_wallets_moved")
+    private long numberOfWalletsMoved;
+}
@@ -0,0 +1,6 @@
+package com.playtomic.tests.wallet.dto;
+
+public enum ShardStatus {
+    ACTIVE,
+    JOINING
+}
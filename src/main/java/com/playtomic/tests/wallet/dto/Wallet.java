@@ -31,6 +31,10 @@ public class Wallet {
     @Column(name = "current_balance")
     private BigDecimal currentBalance;
 
+    @NotNull
+    @Column(name = "held_balance")
+    private BigDecimal heldBalance = BigDecimal.ZERO;
+
     public void addAmountToCurrentBalance(BigDecimal amount) {
         setCurrentBalance(this.currentBalance.add(amount));
     }
@@ -44,4 +48,18 @@ public class Wallet {
             setCurrentBalance(newCurrentBalance);
         }
     }
+
+    public void holdAmount(BigDecimal amount) {
+        subtractAmountToCurrentBalance(amount);
+        setHeldBalance(this.heldBalance.add(amount));
+    }
+
+    public void captureHeldAmount(BigDecimal amount) {
+        setHeldBalance(this.heldBalance.subtract(amount));
+    }
+
+    public void releaseHeldAmount(BigDecimal amount) {
+        setHeldBalance(this.heldBalance.subtract(amount));
+        addAmountToCurrentBalance(amount);
+    }
 }
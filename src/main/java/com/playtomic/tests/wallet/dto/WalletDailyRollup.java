@@ -0,0 +1,68 @@
+package com.playtomic.tests.wallet.dto;
+
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import com.sun.istack.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of the movements of a wallet in a day (UTC), kept up to date with every movement so that summaries over
+ * long periods read one row per day instead of the whole history.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(WalletDailyRollupId.class)
+@Table(name = "wallet_daily_rollup")
+public class WalletDailyRollup {
+    @Id
+    @Column(name = "wallet_id")
+    private String walletId;
+
+    @Id
+    @Column(name = "rollup_day")
+    private LocalDate day;
+
+    @NotNull
+    @Column(name = "total_recharged")
+    private BigDecimal totalRecharged;
+
+    @NotNull
+    @Column(name = "total_charged")
+    private BigDecimal totalCharged;
+
+    @NotNull
+    @Column(name = "number_of_transactions")
+    private long numberOfTransactions;
+
+    /**
+     * Recharges add to the total recharged, and both charges and captures of held amounts to the total charged.
+     */
+    public void addTransaction(WalletTransaction transaction) {
+        switch (transaction.getType()) {
+            case RECHARGE:
+                setTotalRecharged(this.totalRecharged.add(transaction.getAmount()));
+                break;
+            case CHARGE:
+            case CAPTURE:
+                setTotalCharged(this.totalCharged.add(transaction.getAmount()));
+                break;
+            default:
+                throw new TechnicalException("Transaction type " + transaction.getType() + " has no daily total");
+        }
+
+        setNumberOfTransactions(this.numberOfTransactions + 1);
+    }
+}
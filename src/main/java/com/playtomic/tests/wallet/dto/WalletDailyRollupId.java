@@ -0,0 +1,20 @@
+package com.playtomic.tests.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class WalletDailyRollupId implements Serializable {
+    private String walletId;
+    private LocalDate day;
+}
@@ -0,0 +1,58 @@
+package com.playtomic.tests.wallet.dto;
+
+import com.sun.istack.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Change of the balance of a wallet, written to the outbox in the same transaction as the change itself.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_outbox")
+public class WalletEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "wallet_id")
+    private String walletId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private WalletEventType type;
+
+    @NotNull
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @NotNull
+    @Column(name = "current_balance")
+    private BigDecimal currentBalance;
+
+    @NotNull
+    @Column(name = "held_balance")
+    private BigDecimal heldBalance;
+
+    @NotNull
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
@@ -0,0 +1,10 @@
+package com.playtomic.tests.wallet.dto;
+
+public enum WalletEventType {
+    RECHARGED,
+    CHARGED,
+    HELD,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,59 @@
+package com.playtomic.tests.wallet.dto;
+
+import com.sun.istack.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Movement of money in or out of a wallet, kept as its history.
+ *
+ * The index matches the keyset pagination of the history: newest first, with the id breaking ties between
+ * movements of the same instant.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_transaction",
+       indexes = @Index(name = "idx_wallet_transaction_wallet_created", columnList = "wallet_id, created_at, id"))
+public class WalletTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "wallet_id")
+    private String walletId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private WalletTransactionType type;
+
+    @NotNull
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @NotNull
+    @Column(name = "balance_after")
+    private BigDecimal balanceAfter;
+
+    @NotNull
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
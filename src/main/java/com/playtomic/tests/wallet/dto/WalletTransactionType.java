@@ -0,0 +1,5 @@
+package com.playtomic.tests.wallet.dto;
+
+public enum WalletTransactionType {
+    RECHARGE, CHARGE, CAPTURE
+}
@@ -0,0 +1,16 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.Hold;
+import com.playtomic.tests.wallet.dto.HoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, String> {
+    /**
+     * Next page of holds with a given status, in id order, to walk through all of them without an offset.
+     */
+    List<Hold> findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(HoldStatus status, String id);
+}
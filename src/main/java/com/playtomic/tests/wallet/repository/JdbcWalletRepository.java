@@ -0,0 +1,103 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.Wallet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Plain JDBC implementation of {@link WalletRepository}, active with the "jdbc" profile unless the "sharded" one is
+ * active too, since shards already use it underneath.
+ *
+ * Every operation is a single prepared statement on the wallet table, with no persistence context, dirty checking
+ * or entity proxies in between.
+ */
+@Repository
+@Profile("jdbc & !sharded")
+public class JdbcWalletRepository implements WalletRepository {
+    private static final String FIND_BY_ID = "select id, current_balance, held_balance from wallet where id = ?";
+    private static final String FIND_ALL = "select id, current_balance, held_balance from wallet";
+    private static final String FIND_ALL_IDS = "select id from wallet";
+    private static final String FIND_IDS_AFTER = "select id from wallet where id > ? order by id";
+    private static final String FIND_ALL_IDS_IN_ORDER = "select id from wallet order by id";
+    private static final String INSERT = "insert into wallet (id, current_balance, held_balance) values (?, ?, ?)";
+    private static final String UPDATE = "update wallet set current_balance = ?, held_balance = ? where id = ?";
+    private static final String DELETE = "delete from wallet where id = ?";
+    private static final String UPDATE_IF_UNCHANGED =
+            "update wallet set current_balance = ? where id = ? and current_balance = ?";
+
+    private static final RowMapper<Wallet> WALLET_ROW_MAPPER = (resultSet, rowNumber) -> {
+        Wallet wallet = new Wallet();
+        wallet.setId(resultSet.getString("id"));
+        wallet.setCurrentBalance(resultSet.getBigDecimal("current_balance"));
+        wallet.setHeldBalance(resultSet.getBigDecimal("held_balance"));
+
+        return wallet;
+    };
+
+    private static final RowMapper<String> ID_ROW_MAPPER = (resultSet, rowNumber) -> resultSet.getString("id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcWalletRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public <S extends Wallet> S save(S wallet) {
+        if (wallet.getId() == null) {
+            wallet.setId(UUID.randomUUID().toString());
+            jdbcTemplate.update(INSERT, wallet.getId(), wallet.getCurrentBalance(), wallet.getHeldBalance());
+        } else if (jdbcTemplate.update(UPDATE, wallet.getCurrentBalance(), wallet.getHeldBalance(), wallet.getId()) == 0) {
+            jdbcTemplate.update(INSERT, wallet.getId(), wallet.getCurrentBalance(), wallet.getHeldBalance());
+        }
+
+        return wallet;
+    }
+
+    @Override
+    public Optional<Wallet> findById(String id) {
+        List<Wallet> wallets = jdbcTemplate.query(FIND_BY_ID, WALLET_ROW_MAPPER, id);
+
+        return wallets.stream().findFirst();
+    }
+
+    @Override
+    public List<Wallet> findAll() {
+        return jdbcTemplate.query(FIND_ALL, WALLET_ROW_MAPPER);
+    }
+
+    @Override
+    public Stream<String> streamAllIds() {
+        return jdbcTemplate.queryForStream(FIND_ALL_IDS, ID_ROW_MAPPER);
+    }
+
+    /**
+     * Streams in order the ids greater than the given one, or all of them if it is null.
+     */
+    public Stream<String> streamIdsAfter(String id) {
+        if (id == null) {
+            return jdbcTemplate.queryForStream(FIND_ALL_IDS_IN_ORDER, ID_ROW_MAPPER);
+        }
+
+        return jdbcTemplate.queryForStream(FIND_IDS_AFTER, ID_ROW_MAPPER, id);
+    }
+
+    @Override
+    public int updateCurrentBalance(String id, BigDecimal expectedCurrentBalance, BigDecimal newCurrentBalance) {
+        return jdbcTemplate.update(UPDATE_IF_UNCHANGED, newCurrentBalance, id, expectedCurrentBalance);
+    }
+
+    public void deleteById(String id) {
+        jdbcTemplate.update(DELETE, id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.Wallet;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("!jdbc & !sharded")
+public interface JpaWalletRepository extends JpaRepository<Wallet, String>, WalletRepository {
+    @Override
+    @Query("select w.id from Wallet w")
+    Stream<String> streamAllIds();
+
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update Wallet w set w.currentBalance = :newCurrentBalance "
+           + "where w.id = :id and w.currentBalance = :expectedCurrentBalance")
+    int updateCurrentBalance(@Param("id") String id,
+                             @Param("expectedCurrentBalance") BigDecimal expectedCurrentBalance,
+                             @Param("newCurrentBalance") BigDecimal newCurrentBalance);
+}
@@ -0,0 +1,15 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+    /**
+     * @return the offset of the sink furthest behind, or null if no sink has an offset yet
+     */
+    @Query("select min(o.lastDeliveredId) from OutboxOffset o")
+    Long findMinLastDeliveredId();
+}
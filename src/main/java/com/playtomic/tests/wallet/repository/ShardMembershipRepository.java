@@ -0,0 +1,9 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.ShardMembership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShardMembershipRepository extends JpaRepository<ShardMembership, String> {
+}
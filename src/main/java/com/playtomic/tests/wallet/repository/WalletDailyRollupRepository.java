@@ -0,0 +1,14 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.WalletDailyRollup;
+import com.playtomic.tests.wallet.dto.WalletDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WalletDailyRollupRepository extends JpaRepository<WalletDailyRollup, WalletDailyRollupId> {
+    List<WalletDailyRollup> findByWalletIdAndDayBetweenOrderByDayAsc(String walletId, LocalDate from, LocalDate to);
+}
@@ -1,9 +1,34 @@
 package com.playtomic.tests.wallet.repository;
 
 import com.playtomic.tests.wallet.dto.Wallet;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
 
-@Repository
-public interface WalletRepository extends JpaRepository<Wallet, String> {
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Persistence of wallets, independent of the technology behind it.
+ *
+ * {@link JpaWalletRepository} (Spring Data JPA) is used by default and {@link JdbcWalletRepository} (plain JDBC)
+ * when the "jdbc" profile is active.
+ */
+public interface WalletRepository {
+    <S extends Wallet> S save(S wallet);
+
+    Optional<Wallet> findById(String id);
+
+    List<Wallet> findAll();
+
+    /**
+     * Streams the id of every wallet. Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<String> streamAllIds();
+
+    /**
+     * Sets the current balance of a wallet only if it still has the expected one.
+     *
+     * @return the number of wallets updated, 0 when the wallet does not exist or its balance changed meanwhile
+     */
+    int updateCurrentBalance(String id, BigDecimal expectedCurrentBalance, BigDecimal newCurrentBalance);
 }
@@ -0,0 +1,25 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.WalletTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
+    List<WalletTransaction> findByWalletIdOrderByCreatedAtDescIdDesc(String walletId, Pageable pageable);
+
+    /**
+     * Next page of the history after the given movement, seeking the index instead of skipping rows with an offset.
+     */
+    @Query("select t from WalletTransaction t where t.walletId = :walletId "
+           + "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) "
+           + "order by t.createdAt desc, t.id desc")
+    List<WalletTransaction> findPageAfter(@Param("walletId") String walletId, @Param("createdAt") Instant createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+}
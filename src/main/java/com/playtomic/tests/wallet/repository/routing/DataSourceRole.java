@@ -0,0 +1,5 @@
+package com.playtomic.tests.wallet.repository.routing;
+
+public enum DataSourceRole {
+    PRIMARY, REPLICA
+}
@@ -0,0 +1,50 @@
+package com.playtomic.tests.wallet.repository.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions allowed by {@link ReplicaReadContext} to the replica and every other connection to
+ * the primary.
+ *
+ * The read-only flag of a transaction is only known once it has begun, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that fetches the real connection on the
+ * first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(DataSourceRole.PRIMARY, primaryDataSource);
+        targetDataSources.put(DataSourceRole.REPLICA, replicaDataSource);
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (readOnly && ReplicaReadContext.isReplicaReadAllowed()) {
+            return DataSourceRole.REPLICA;
+        }
+
+        if (!readOnly && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReplicaReadContext.recordCommittedWrite();
+                }
+            });
+        }
+
+        return DataSourceRole.PRIMARY;
+    }
+}
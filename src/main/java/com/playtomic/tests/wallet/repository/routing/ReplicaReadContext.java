@@ -0,0 +1,81 @@
+package com.playtomic.tests.wallet.repository.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Per thread state used by {@link ReadWriteRoutingDataSource} to decide where a connection goes.
+ *
+ * Reads only go to a replica when the code running them says it accepts stale data, with
+ * {@link #readFromReplica(Supplier)}, and the current request has not asked to read its own writes. Everything else,
+ * including the reads that precede a write, goes to the primary.
+ */
+public final class ReplicaReadContext {
+    private static final ThreadLocal<Boolean> REPLICA_READS_ALLOWED = new ThreadLocal<>();
+    private static final ThreadLocal<RequestState> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private ReplicaReadContext() {
+    }
+
+    /**
+     * Runs reads that may be served by a replica, as long as they run in a read-only transaction.
+     */
+    public static <T> T readFromReplica(Supplier<T> reads) {
+        Boolean previouslyAllowed = REPLICA_READS_ALLOWED.get();
+        REPLICA_READS_ALLOWED.set(Boolean.TRUE);
+
+        try {
+            return reads.get();
+        } finally {
+            if (previouslyAllowed == null) {
+                REPLICA_READS_ALLOWED.remove();
+            } else {
+                REPLICA_READS_ALLOWED.set(previouslyAllowed);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking the writes of the request handled by the current thread.
+     *
+     * @param primaryRequired true when the client has written recently enough that a replica may not have its write
+     */
+    public static void startRequest(boolean primaryRequired) {
+        CURRENT_REQUEST.set(new RequestState(primaryRequired));
+    }
+
+    /**
+     * @return the time in millis of the last write committed by the current request, or null if it wrote nothing
+     */
+    public static Long getLastCommittedWriteTime() {
+        RequestState requestState = CURRENT_REQUEST.get();
+
+        return requestState == null ? null : requestState.lastCommittedWriteTime;
+    }
+
+    public static void endRequest() {
+        CURRENT_REQUEST.remove();
+    }
+
+    static boolean isReplicaReadAllowed() {
+        RequestState requestState = CURRENT_REQUEST.get();
+
+        return REPLICA_READS_ALLOWED.get() != null && (requestState == null || !requestState.primaryRequired);
+    }
+
+    static void recordCommittedWrite() {
+        RequestState requestState = CURRENT_REQUEST.get();
+
+        if (requestState != null) {
+            requestState.lastCommittedWriteTime = System.currentTimeMillis();
+        }
+    }
+
+    private static final class RequestState {
+        private final boolean primaryRequired;
+        private Long lastCommittedWriteTime;
+
+        private RequestState(boolean primaryRequired) {
+            this.primaryRequired = primaryRequired;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring: every node is placed at several points of a 64 bit ring and a key belongs to the first node
+ * found clockwise from its hash.
+ *
+ * Adding a node only moves to it the keys that fall right before its points, about 1 / (N + 1) of them, and the
+ * virtual nodes keep the share of each node close to even.
+ */
+public class ConsistentHashRing<T> {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, T> nodesByName;
+    private final int virtualNodesPerNode;
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Map<String, T> nodesByName, int virtualNodesPerNode) {
+        Assert.notEmpty(nodesByName, "A hash ring needs at least one node");
+        Assert.isTrue(virtualNodesPerNode > 0, "virtualNodesPerNode must be positive");
+
+        this.nodesByName = new LinkedHashMap<>(nodesByName);
+        this.virtualNodesPerNode = virtualNodesPerNode;
+
+        nodesByName.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodesPerNode; i++) {
+                ring.put(hash(name + "#" + i), node);
+            }
+        });
+    }
+
+    public T getNode(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return a new ring with the nodes of this one plus the given node
+     */
+    public ConsistentHashRing<T> withNode(String name, T node) {
+        Assert.isTrue(!nodesByName.containsKey(name), "Node " + name + " is already in the ring");
+
+        Map<String, T> newNodesByName = new LinkedHashMap<>(nodesByName);
+        newNodesByName.put(name, node);
+
+        return new ConsistentHashRing<>(newNodesByName, virtualNodesPerNode);
+    }
+
+    public Collection<T> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<>(nodesByName.values()));
+    }
+
+    /**
+     * FNV-1a followed by the murmur3 finalizer, which spreads the similar names of the virtual nodes over the ring.
+     */
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,12 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RebalancingReport {
+    private final String shardName;
+    private final long numberOfWalletsMoved;
+    private final long durationInMillis;
+}
@@ -0,0 +1,72 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.repository.JdbcWalletRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * One of the databases wallets are spread over, with its own connection pool and wallet table.
+ */
+public class Shard {
+    private static final String SCHEMA = "sharding/wallet-schema.sql";
+    private static final String COUNT = "select count(*) from wallet";
+
+    private final String name;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcWalletRepository walletRepository;
+
+    public Shard(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.walletRepository = new JdbcWalletRepository(jdbcTemplate);
+    }
+
+    /**
+     * Connects to the database of a shard and creates its wallet table if it does not exist yet.
+     */
+    public static Shard open(ShardProperties shardProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                                                       .type(HikariDataSource.class)
+                                                       .url(shardProperties.getUrl())
+                                                       .username(shardProperties.getUsername())
+                                                       .password(shardProperties.getPassword())
+                                                       .build();
+        dataSource.setPoolName(shardProperties.getName());
+
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+
+        return new Shard(shardProperties.getName(), dataSource);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JdbcWalletRepository getWalletRepository() {
+        return walletRepository;
+    }
+
+    public long countWallets() {
+        Long numberOfWallets = jdbcTemplate.queryForObject(COUNT, Long.class);
+
+        return numberOfWallets == null ? 0 : numberOfWallets;
+    }
+
+    public void close() {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,145 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.dto.ShardMembership;
+import com.playtomic.tests.wallet.dto.ShardStatus;
+import com.playtomic.tests.wallet.exception.BusinessException;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import com.playtomic.tests.wallet.repository.ShardMembershipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Shards declared in wallet.sharding and the topology built from them, which is stored in the main database.
+ *
+ * The first start stores the shards of wallet.sharding.shards. Later starts open the shards stored, so shards added
+ * since are kept, and a shard that was still being added is routed to again so its rebalancing can be resumed. Only
+ * shards declared in wallet.sharding.shards or wallet.sharding.spare-shards can be opened.
+ */
+public class ShardCatalog {
+    private final Logger log = LoggerFactory.getLogger(ShardCatalog.class);
+
+    private final ShardMembershipRepository shardMembershipRepository;
+    private final Map<String, ShardProperties> declaredShardsByName = new LinkedHashMap<>();
+    private final List<String> initialShardNames;
+    private final int virtualNodesPerShard;
+
+    public ShardCatalog(ShardMembershipRepository shardMembershipRepository, ShardingProperties shardingProperties) {
+        this.shardMembershipRepository = shardMembershipRepository;
+        this.initialShardNames = shardingProperties.getShards().stream()
+                                                   .map(ShardProperties::getName)
+                                                   .collect(Collectors.toList());
+        this.virtualNodesPerShard = shardingProperties.getVirtualNodesPerShard();
+
+        List<ShardProperties> declaredShards = new ArrayList<>(shardingProperties.getShards());
+        declaredShards.addAll(shardingProperties.getSpareShards());
+
+        for (ShardProperties shardProperties : declaredShards) {
+            if (declaredShardsByName.put(shardProperties.getName(), shardProperties) != null) {
+                throw new TechnicalException("Shard " + shardProperties.getName() + " is declared twice");
+            }
+        }
+    }
+
+    /**
+     * Opens the shards of the stored topology, storing the initial shards if there is none yet.
+     */
+    public ShardedWalletRepository openWalletRepository() {
+        List<ShardMembership> shardMemberships = new ArrayList<>(shardMembershipRepository.findAll());
+
+        if (shardMemberships.isEmpty()) {
+            shardMemberships = initialShardNames.stream()
+                                                .map(name -> new ShardMembership(name, ShardStatus.ACTIVE, null,
+                                                                                 null, 0))
+                                                .collect(Collectors.toCollection(ArrayList::new));
+            shardMembershipRepository.saveAll(shardMemberships);
+
+            log.info("Stored initial shards " + initialShardNames);
+        }
+
+        shardMemberships.sort(Comparator.comparing(ShardMembership::getName));
+
+        List<Shard> shards = new ArrayList<>();
+        Shard joiningShard = null;
+
+        for (ShardMembership shardMembership : shardMemberships) {
+            ShardProperties shardProperties = getDeclaredShard(shardMembership.getName()).orElseThrow(
+                    () -> new TechnicalException("Shard " + shardMembership.getName()
+                                                 + " is stored in the topology but not declared in wallet.sharding"));
+
+            if (shardMembership.getStatus() == ShardStatus.JOINING) {
+                joiningShard = Shard.open(shardProperties);
+            } else {
+                shards.add(Shard.open(shardProperties));
+            }
+        }
+
+        ShardedWalletRepository walletRepository = new ShardedWalletRepository(shards, virtualNodesPerShard);
+
+        if (joiningShard != null) {
+            walletRepository.beginRebalancing(joiningShard);
+
+            log.warn("Shard " + joiningShard.getName() + " was still being added, its rebalancing must be resumed");
+        }
+
+        return walletRepository;
+    }
+
+    /**
+     * Opens a declared shard that is not part of the topology yet.
+     */
+    public Shard openSpareShard(String name) {
+        if (shardMembershipRepository.existsById(name)) {
+            throw new BusinessException("Shard is already part of the topology", name);
+        }
+
+        return Shard.open(getDeclaredShard(name).orElseThrow(
+                () -> new BusinessException("Shard is not declared in wallet.sharding.spare-shards", name)));
+    }
+
+    public List<String> getSpareShardNames() {
+        return declaredShardsByName.keySet().stream()
+                                   .filter(name -> !shardMembershipRepository.existsById(name))
+                                   .collect(Collectors.toList());
+    }
+
+    public ShardMembership markJoining(Shard joiningShard) {
+        return shardMembershipRepository.save(new ShardMembership(joiningShard.getName(), ShardStatus.JOINING, null,
+                                                                  null, 0));
+    }
+
+    public ShardMembership getJoiningMembership(Shard joiningShard) {
+        return shardMembershipRepository.findById(joiningShard.getName())
+                                        .filter(shardMembership -> shardMembership.getStatus() == ShardStatus.JOINING)
+                                        .orElseThrow(() -> new TechnicalException(
+                                                "Shard " + joiningShard.getName() + " is not stored as joining"));
+    }
+
+    public void recordProgress(ShardMembership joiningMembership, Shard sourceShard, String lastWalletId,
+                               long numberOfWalletsMoved) {
+        joiningMembership.setRebalanceSourceShard(sourceShard.getName());
+        joiningMembership.setRebalanceLastWalletId(lastWalletId);
+        joiningMembership.setNumberOfWalletsMoved(numberOfWalletsMoved);
+
+        shardMembershipRepository.save(joiningMembership);
+    }
+
+    public void markActive(ShardMembership joiningMembership) {
+        joiningMembership.setStatus(ShardStatus.ACTIVE);
+        joiningMembership.setRebalanceSourceShard(null);
+        joiningMembership.setRebalanceLastWalletId(null);
+
+        shardMembershipRepository.save(joiningMembership);
+    }
+
+    private Optional<ShardProperties> getDeclaredShard(String name) {
+        return Optional.ofNullable(declaredShardsByName.get(name));
+    }
+}
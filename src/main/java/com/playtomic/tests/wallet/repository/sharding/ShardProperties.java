@@ -0,0 +1,17 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardProperties {
+    private String name;
+    private String url;
+    private String username = "sa";
+    private String password = "";
+}
@@ -0,0 +1,133 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.dto.ShardMembership;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Adds a shard while the application keeps serving requests.
+ *
+ * The wallets the new shard owns are moved to it one at a time, so only the wallet being moved is locked. Shards are
+ * drained in the order of their names and their wallets in the order of their ids, and how far the move went is stored
+ * with the topology every {@value #PROGRESS_INTERVAL} wallets. If moving fails or the application stops, routing stays
+ * in its rebalancing state, which still finds every wallet, and {@link #resumeRebalancing()} moves the rest from the
+ * last progress stored. Moving a wallet twice is harmless, so it does not matter that the progress lags behind.
+ *
+ * Routing changes are only known to this instance, so other instances sharing the shards must not serve writes
+ * during a rebalancing.
+ */
+@Component
+@Profile("sharded")
+public class ShardRebalancer {
+    private static final int PROGRESS_INTERVAL = 500;
+
+    private final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardedWalletRepository walletRepository;
+    private final ShardCatalog shardCatalog;
+
+    @Autowired
+    public ShardRebalancer(ShardedWalletRepository walletRepository, ShardCatalog shardCatalog) {
+        this.walletRepository = walletRepository;
+        this.shardCatalog = shardCatalog;
+    }
+
+    /**
+     * Adds one of the spare shards declared in wallet.sharding.spare-shards.
+     */
+    public synchronized RebalancingReport addShard(String name) {
+        walletRepository.getJoiningShard().ifPresent(joiningShard -> {
+            throw new TechnicalException("Shard " + joiningShard.getName() + " is still being added");
+        });
+
+        Shard shard = shardCatalog.openSpareShard(name);
+
+        log.info("Adding shard " + shard.getName());
+
+        ShardMembership joiningMembership = shardCatalog.markJoining(shard);
+        walletRepository.beginRebalancing(shard);
+
+        return rebalance(shard, joiningMembership);
+    }
+
+    public synchronized RebalancingReport resumeRebalancing() {
+        Shard joiningShard = walletRepository.getJoiningShard().orElseThrow(
+                () -> new TechnicalException("No shard is being added"));
+
+        log.info("Resuming the addition of shard " + joiningShard.getName());
+
+        return rebalance(joiningShard, shardCatalog.getJoiningMembership(joiningShard));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRebalancing() {
+        if (walletRepository.getJoiningShard().isPresent()) {
+            resumeRebalancing();
+        }
+    }
+
+    private RebalancingReport rebalance(Shard joiningShard, ShardMembership joiningMembership) {
+        long startTime = System.currentTimeMillis();
+        long numberOfWalletsMoved = joiningMembership.getNumberOfWalletsMoved();
+        List<Shard> sourceShards = walletRepository.getShards().stream()
+                                                   .filter(shard -> shard != joiningShard)
+                                                   .sorted(Comparator.comparing(Shard::getName))
+                                                   .collect(Collectors.toList());
+
+        for (Shard sourceShard : sourceShards) {
+            String lastWalletId = null;
+
+            if (joiningMembership.getRebalanceSourceShard() != null) {
+                int order = sourceShard.getName().compareTo(joiningMembership.getRebalanceSourceShard());
+
+                if (order < 0) {
+                    continue;
+                } else if (order == 0) {
+                    lastWalletId = joiningMembership.getRebalanceLastWalletId();
+                }
+            }
+
+            try (Stream<String> walletIds = sourceShard.getWalletRepository().streamIdsAfter(lastWalletId)) {
+                Iterator<String> walletIdIterator = walletIds.iterator();
+                int numberOfWalletsSinceProgress = 0;
+
+                while (walletIdIterator.hasNext()) {
+                    lastWalletId = walletIdIterator.next();
+
+                    if (walletRepository.moveWallet(sourceShard, lastWalletId)) {
+                        numberOfWalletsMoved++;
+                    }
+
+                    if (++numberOfWalletsSinceProgress == PROGRESS_INTERVAL) {
+                        shardCatalog.recordProgress(joiningMembership, sourceShard, lastWalletId, numberOfWalletsMoved);
+                        numberOfWalletsSinceProgress = 0;
+                    }
+                }
+            }
+
+            shardCatalog.recordProgress(joiningMembership, sourceShard, lastWalletId, numberOfWalletsMoved);
+            log.info("Moved wallets of shard " + sourceShard.getName() + " to shard " + joiningShard.getName());
+        }
+
+        shardCatalog.markActive(joiningMembership);
+        walletRepository.completeRebalancing();
+
+        long durationInMillis = System.currentTimeMillis() - startTime;
+        log.info("Added shard " + joiningShard.getName() + " moving " + numberOfWalletsMoved + " wallets in "
+                 + durationInMillis + " ms");
+
+        return new RebalancingReport(joiningShard.getName(), numberOfWalletsMoved, durationInMillis);
+    }
+}
@@ -0,0 +1,423 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import com.playtomic.tests.wallet.repository.JdbcWalletRepository;
+import com.playtomic.tests.wallet.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link WalletRepository} spreading wallets over several databases, active with the "sharded" profile.
+ *
+ * The owner of a wallet is picked by consistent hashing of its id, which is generated here for new wallets so they
+ * can be placed before they are inserted. Holds and the outbox stay in the main database: when a wallet is saved in a
+ * transaction of the main database, the write to its shard is delayed until right before that transaction commits,
+ * so a failed shard write rolls back the whole change.
+ *
+ * The two databases are not committed atomically though: the shard write is committed on its own before the main
+ * database commits. If the main commit then fails, the previous row of the wallet is written back to its shard, unless
+ * the wallet was written again in between. If the application stops between both commits, or writing back fails, the
+ * balance in the shard keeps a change that has no outbox event, hold or history entry in the main database; this is
+ * logged as an error so the wallet can be reconciled.
+ *
+ * While a shard is being added, the wallets it takes over are copied to it and deleted from their previous owner one
+ * by one. Reads look at the previous owner first and then at the new one, and writes go to whichever has the wallet,
+ * under a lock per wallet id shared with the copy, so no write lands on a wallet that was already moved.
+ */
+public class ShardedWalletRepository implements WalletRepository {
+    private static final int NUMBER_OF_LOCK_STRIPES = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(ShardedWalletRepository.class);
+
+    private final Lock[] lockStripes = new Lock[NUMBER_OF_LOCK_STRIPES];
+
+    private volatile Topology topology;
+
+    public ShardedWalletRepository(List<Shard> shards, int virtualNodesPerShard) {
+        this.topology = new Topology(shards, createRing(shards, virtualNodesPerShard), null, null);
+
+        for (int i = 0; i < NUMBER_OF_LOCK_STRIPES; i++) {
+            lockStripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <S extends Wallet> S save(S wallet) {
+        if (wallet.getId() == null) {
+            wallet.setId(UUID.randomUUID().toString());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new ShardWriteSynchronization(wallet));
+        } else {
+            write(wallet);
+        }
+
+        return wallet;
+    }
+
+    @Override
+    public Optional<Wallet> findById(String id) {
+        Topology currentTopology = topology;
+        Shard owner = currentTopology.ring.getNode(id);
+        Optional<Wallet> wallet = owner.getWalletRepository().findById(id);
+
+        if (!wallet.isPresent() && currentTopology.isRebalancing()) {
+            Shard newOwner = currentTopology.targetRing.getNode(id);
+
+            if (newOwner != owner) {
+                wallet = newOwner.getWalletRepository().findById(id);
+            }
+        }
+
+        // The wallet may have moved between reading the topology and reading its owner
+        if (!wallet.isPresent() && currentTopology != topology) {
+            return findById(id);
+        }
+
+        return wallet;
+    }
+
+    @Override
+    public List<Wallet> findAll() {
+        Map<String, Wallet> walletsById = topology.getShardsInReadOrder().stream()
+                                                  .flatMap(shard -> shard.getWalletRepository().findAll().stream())
+                                                  .collect(Collectors.toMap(Wallet::getId, Function.identity(),
+                                                                            (first, second) -> first,
+                                                                            LinkedHashMap::new));
+
+        return new ArrayList<>(walletsById.values());
+    }
+
+    @Override
+    public Stream<String> streamAllIds() {
+        // The joining shard is read last, so a wallet moved during the stream is seen at least once
+        return topology.getShardsInReadOrder().stream()
+                       .flatMap(shard -> shard.getWalletRepository().streamAllIds())
+                       .distinct();
+    }
+
+    /**
+     * In a transaction of the main database the balance is only compared here, and the update is made right before
+     * that transaction commits, like {@link #save}: if the balance changed in between, the commit fails and the whole
+     * change is rolled back.
+     */
+    @Override
+    public int updateCurrentBalance(String id, BigDecimal expectedCurrentBalance, BigDecimal newCurrentBalance) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return updateCurrentBalanceInShard(id, expectedCurrentBalance, newCurrentBalance);
+        }
+
+        boolean balanceUnchanged = findById(id).map(wallet -> wallet.getCurrentBalance()
+                                                                    .compareTo(expectedCurrentBalance) == 0)
+                                               .orElse(false);
+
+        if (!balanceUnchanged) {
+            return 0;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new ShardBalanceUpdateSynchronization(id, expectedCurrentBalance, newCurrentBalance));
+
+        return 1;
+    }
+
+    public List<Shard> getShards() {
+        return topology.getShardsInReadOrder();
+    }
+
+    public Optional<Shard> getJoiningShard() {
+        return Optional.ofNullable(topology.joiningShard);
+    }
+
+    public Shard getOwningShard(String id) {
+        return topology.ring.getNode(id);
+    }
+
+    /**
+     * Starts routing to a new shard the wallets it will own, while they are still in their previous owner.
+     */
+    public synchronized void beginRebalancing(Shard joiningShard) {
+        Assert.state(!topology.isRebalancing(), "Shard " + topology.joiningShard + " is still being added");
+
+        topology = new Topology(topology.shards, topology.ring,
+                                topology.ring.withNode(joiningShard.getName(), joiningShard), joiningShard);
+    }
+
+    /**
+     * Moves a wallet of the given shard to the joining shard if the joining shard owns it.
+     *
+     * @return true if the wallet was moved
+     */
+    public boolean moveWallet(Shard source, String id) {
+        Lock lock = getLock(id);
+        lock.lock();
+
+        try {
+            Topology currentTopology = topology;
+            Assert.state(currentTopology.isRebalancing(), "No shard is being added");
+
+            if (currentTopology.targetRing.getNode(id) == source) {
+                return false;
+            }
+
+            Optional<Wallet> wallet = source.getWalletRepository().findById(id);
+
+            if (!wallet.isPresent()) {
+                return false;
+            }
+
+            currentTopology.joiningShard.getWalletRepository().save(wallet.get());
+            source.getWalletRepository().deleteById(id);
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the joining shard a regular shard, once every wallet it owns has been moved to it.
+     */
+    public synchronized void completeRebalancing() {
+        Assert.state(topology.isRebalancing(), "No shard is being added");
+
+        List<Shard> shards = new ArrayList<>(topology.shards);
+        shards.add(topology.joiningShard);
+
+        topology = new Topology(shards, topology.targetRing, null, null);
+    }
+
+    public void close() {
+        topology.getShardsInReadOrder().forEach(Shard::close);
+    }
+
+    private void write(Wallet wallet) {
+        Lock lock = getLock(wallet.getId());
+        lock.lock();
+
+        try {
+            getShardForWrite(wallet.getId()).getWalletRepository().save(wallet);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int updateCurrentBalanceInShard(String id, BigDecimal expectedCurrentBalance,
+                                            BigDecimal newCurrentBalance) {
+        Lock lock = getLock(id);
+        lock.lock();
+
+        try {
+            return getShardForWrite(id).getWalletRepository()
+                                       .updateCurrentBalance(id, expectedCurrentBalance, newCurrentBalance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a wallet to its shard right before the transaction of the main database commits, and writes back the
+     * previous row of the wallet if that commit fails.
+     */
+    private final class ShardWriteSynchronization implements TransactionSynchronization {
+        private final Wallet wallet;
+        private Optional<Wallet> previousWallet;
+        private Wallet writtenWallet;
+
+        private ShardWriteSynchronization(Wallet wallet) {
+            this.wallet = wallet;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Lock lock = getLock(wallet.getId());
+            lock.lock();
+
+            try {
+                JdbcWalletRepository shardWalletRepository = getShardForWrite(wallet.getId()).getWalletRepository();
+                previousWallet = shardWalletRepository.findById(wallet.getId());
+                shardWalletRepository.save(wallet);
+                writtenWallet = copy(wallet);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (writtenWallet == null || status == STATUS_COMMITTED) {
+                return;
+            }
+
+            if (status == STATUS_UNKNOWN) {
+                log.error("Wallet " + wallet.getId() + " was written to its shard but the commit of the main database "
+                          + "has an unknown outcome, it must be reconciled");
+                return;
+            }
+
+            Lock lock = getLock(wallet.getId());
+            lock.lock();
+
+            try {
+                JdbcWalletRepository shardWalletRepository = getShardForWrite(wallet.getId()).getWalletRepository();
+                Optional<Wallet> currentWallet = shardWalletRepository.findById(wallet.getId());
+
+                if (!currentWallet.isPresent() || !isSameRow(currentWallet.get(), writtenWallet)) {
+                    log.error("Wallet " + wallet.getId() + " was written again before the failed commit of the main "
+                              + "database could be undone in its shard, it must be reconciled");
+                } else if (previousWallet.isPresent()) {
+                    shardWalletRepository.save(previousWallet.get());
+                } else {
+                    shardWalletRepository.deleteById(wallet.getId());
+                }
+            } catch (RuntimeException e) {
+                log.error("Wallet " + wallet.getId() + " could not be written back to its shard after the commit of "
+                          + "the main database failed, it must be reconciled", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Must be called holding the lock of the wallet id.
+     */
+    private Shard getShardForWrite(String id) {
+        Topology currentTopology = topology;
+        Shard owner = currentTopology.ring.getNode(id);
+
+        if (!currentTopology.isRebalancing()) {
+            return owner;
+        }
+
+        Shard newOwner = currentTopology.targetRing.getNode(id);
+
+        if (newOwner == owner || owner.getWalletRepository().findById(id).isPresent()) {
+            return owner;
+        }
+
+        return newOwner;
+    }
+
+    /**
+     * Updates the balance of a wallet in its shard right before the transaction of the main database commits, failing
+     * the commit if the balance changed meanwhile, and sets the previous balance back if that commit fails.
+     */
+    private final class ShardBalanceUpdateSynchronization implements TransactionSynchronization {
+        private final String id;
+        private final BigDecimal expectedCurrentBalance;
+        private final BigDecimal newCurrentBalance;
+        private boolean updated;
+
+        private ShardBalanceUpdateSynchronization(String id, BigDecimal expectedCurrentBalance,
+                                                  BigDecimal newCurrentBalance) {
+            this.id = id;
+            this.expectedCurrentBalance = expectedCurrentBalance;
+            this.newCurrentBalance = newCurrentBalance;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (updateCurrentBalanceInShard(id, expectedCurrentBalance, newCurrentBalance) == 0) {
+                throw new TechnicalException("The balance of wallet " + id + " changed meanwhile in its shard");
+            }
+
+            updated = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (!updated || status == STATUS_COMMITTED) {
+                return;
+            }
+
+            if (status == STATUS_UNKNOWN) {
+                log.error("Balance of wallet " + id + " was updated in its shard but the commit of the main database "
+                          + "has an unknown outcome, it must be reconciled");
+                return;
+            }
+
+            try {
+                if (updateCurrentBalanceInShard(id, newCurrentBalance, expectedCurrentBalance) == 0) {
+                    log.error("Wallet " + id + " was written again before the failed commit of the main database "
+                              + "could be undone in its shard, it must be reconciled");
+                }
+            } catch (RuntimeException e) {
+                log.error("Balance of wallet " + id + " could not be set back in its shard after the commit of the "
+                          + "main database failed, it must be reconciled", e);
+            }
+        }
+    }
+
+    private static Wallet copy(Wallet wallet) {
+        return new Wallet(wallet.getId(), wallet.getCurrentBalance(), wallet.getHeldBalance());
+    }
+
+    private static boolean isSameRow(Wallet wallet, Wallet otherWallet) {
+        return wallet.getCurrentBalance().compareTo(otherWallet.getCurrentBalance()) == 0
+               && wallet.getHeldBalance().compareTo(otherWallet.getHeldBalance()) == 0;
+    }
+
+    private Lock getLock(String id) {
+        return lockStripes[(id.hashCode() & Integer.MAX_VALUE) % NUMBER_OF_LOCK_STRIPES];
+    }
+
+    private static ConsistentHashRing<Shard> createRing(List<Shard> shards, int virtualNodesPerShard) {
+        Map<String, Shard> shardsByName = new LinkedHashMap<>();
+
+        for (Shard shard : shards) {
+            Assert.isNull(shardsByName.put(shard.getName(), shard), "Duplicated shard name " + shard.getName());
+        }
+
+        return new ConsistentHashRing<>(shardsByName, virtualNodesPerShard);
+    }
+
+    private static final class Topology {
+        private final List<Shard> shards;
+        private final ConsistentHashRing<Shard> ring;
+        private final ConsistentHashRing<Shard> targetRing;
+        private final Shard joiningShard;
+
+        private Topology(List<Shard> shards, ConsistentHashRing<Shard> ring, ConsistentHashRing<Shard> targetRing,
+                         Shard joiningShard) {
+            this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+            this.ring = ring;
+            this.targetRing = targetRing;
+            this.joiningShard = joiningShard;
+        }
+
+        private boolean isRebalancing() {
+            return joiningShard != null;
+        }
+
+        private List<Shard> getShardsInReadOrder() {
+            if (!isRebalancing()) {
+                return shards;
+            }
+
+            List<Shard> shardsInReadOrder = new ArrayList<>(shards);
+            shardsInReadOrder.add(joiningShard);
+
+            return shardsInReadOrder;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.repository.ShardMembershipRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Opens the shards of the topology stored in the main database when the "sharded" profile is active, starting with
+ * the ones listed in wallet.sharding.shards.
+ */
+@Configuration
+@Profile("sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardCatalog shardCatalog(ShardMembershipRepository shardMembershipRepository,
+                                     ShardingProperties shardingProperties) {
+        return new ShardCatalog(shardMembershipRepository, shardingProperties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardedWalletRepository shardedWalletRepository(ShardCatalog shardCatalog) {
+        return shardCatalog.openWalletRepository();
+    }
+}
@@ -0,0 +1,20 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shards wallets are spread over when the topology is first stored, and spare shards that can be added later.
+ */
+@Setter
+@Getter
+@ConfigurationProperties(prefix = "wallet.sharding")
+public class ShardingProperties {
+    private int virtualNodesPerShard = 128;
+    private List<ShardProperties> shards = new ArrayList<>();
+    private List<ShardProperties> spareShards = new ArrayList<>();
+}
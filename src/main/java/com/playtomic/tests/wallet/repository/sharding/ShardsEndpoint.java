@@ -0,0 +1,54 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin tool for the shards, only served on the management port and requiring the wallet.management.token: the read
+ * operation lists them with their number of wallets and the spare shards, and the write operation adds one of the
+ * spare shards by its name. Connection details only come from wallet.sharding.spare-shards.
+ */
+@Component
+@Profile("sharded")
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+    private final ShardedWalletRepository walletRepository;
+    private final ShardCatalog shardCatalog;
+    private final ShardRebalancer shardRebalancer;
+
+    @Autowired
+    public ShardsEndpoint(ShardedWalletRepository walletRepository, ShardCatalog shardCatalog,
+                          ShardRebalancer shardRebalancer) {
+        this.walletRepository = walletRepository;
+        this.shardCatalog = shardCatalog;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Long> numberOfWalletsByShard = new LinkedHashMap<>();
+
+        for (Shard shard : walletRepository.getShards()) {
+            numberOfWalletsByShard.put(shard.getName(), shard.countWallets());
+        }
+
+        Map<String, Object> shards = new LinkedHashMap<>();
+        shards.put("wallets", numberOfWalletsByShard);
+        shards.put("joining", walletRepository.getJoiningShard().map(Shard::getName).orElse(null));
+        shards.put("spare", shardCatalog.getSpareShardNames());
+
+        return shards;
+    }
+
+    @WriteOperation
+    public RebalancingReport addShard(String name) {
+        return shardRebalancer.addShard(name);
+    }
+}
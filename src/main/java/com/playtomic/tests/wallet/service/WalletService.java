@@ -1,9 +1,14 @@
 package com.playtomic.tests.wallet.service;
 
 import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.domain.TransactionPage;
+import com.playtomic.tests.wallet.domain.TransactionSummary;
+import com.playtomic.tests.wallet.dto.Hold;
 import com.playtomic.tests.wallet.dto.Wallet;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 
 public interface WalletService {
     Wallet createWallet(Wallet wallet);
@@ -13,4 +18,24 @@ public interface WalletService {
     void rechargeWallet(String walletId, Recharge recharge);
 
     void chargeWallet(String walletId, BigDecimal amount);
+
+    /**
+     * Moves an amount from the current balance of a wallet to its held balance until the hold is captured or
+     * released. Holds that are still open after their time to live are released automatically.
+     */
+    Hold holdAmount(String walletId, BigDecimal amount, Duration timeToLive);
+
+    void captureHold(String holdId);
+
+    void releaseHold(String holdId);
+
+    /**
+     * Returns the movements of a wallet newest first, starting after the cursor returned with the previous page.
+     */
+    TransactionPage getTransactions(String walletId, String cursor, int limit);
+
+    /**
+     * Totals of the movements of a wallet between two days (UTC), both included, read from the daily rollups.
+     */
+    TransactionSummary getTransactionSummary(String walletId, LocalDate from, LocalDate to);
 }
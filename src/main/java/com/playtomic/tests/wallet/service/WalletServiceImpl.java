@@ -1,53 +1,134 @@
 package com.playtomic.tests.wallet.service;
 
 import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.domain.TransactionPage;
+import com.playtomic.tests.wallet.domain.TransactionSummary;
+import com.playtomic.tests.wallet.dto.Hold;
+import com.playtomic.tests.wallet.dto.HoldStatus;
 import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.dto.WalletDailyRollup;
+import com.playtomic.tests.wallet.dto.WalletDailyRollupId;
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import com.playtomic.tests.wallet.dto.WalletEventType;
+import com.playtomic.tests.wallet.dto.WalletTransaction;
+import com.playtomic.tests.wallet.dto.WalletTransactionType;
 import com.playtomic.tests.wallet.exception.BusinessException;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import com.playtomic.tests.wallet.repository.HoldRepository;
+import com.playtomic.tests.wallet.repository.WalletDailyRollupRepository;
+import com.playtomic.tests.wallet.repository.WalletEventRepository;
 import com.playtomic.tests.wallet.repository.WalletRepository;
+import com.playtomic.tests.wallet.repository.WalletTransactionRepository;
+import com.playtomic.tests.wallet.repository.routing.ReplicaReadContext;
+import com.playtomic.tests.wallet.service.hold.HoldExpiryScheduler;
+import com.playtomic.tests.wallet.service.hotkey.HotWalletTracker;
+import com.playtomic.tests.wallet.service.index.WalletIdIndex;
 import com.playtomic.tests.wallet.service.stripe.StripeService;
 import com.playtomic.tests.wallet.service.stripe.StripeServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 public class WalletServiceImpl implements WalletService {
+    private static final int MAX_TRANSACTIONS_PER_PAGE = 200;
+    private static final int MAX_DAYS_PER_SUMMARY = 366;
+
     private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
     private final Logger log = LoggerFactory.getLogger(WalletServiceImpl.class);
 
     private final WalletRepository walletRepository;
     private final StripeService stripeService;
+    private final WalletIdIndex walletIdIndex;
+    private final HoldRepository holdRepository;
+    private final HoldExpiryScheduler holdExpiryScheduler;
+    private final WalletEventRepository walletEventRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final WalletDailyRollupRepository walletDailyRollupRepository;
+    private final HotWalletTracker hotWalletTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
+    /**
+     * Changes of balance are written in a transaction together with their outbox event and, for movements of money,
+     * their history entry and daily rollup. The transaction is always started and committed while holding the write
+     * lock, so the next writer reads the committed balance.
+     *
+     * Plain reads run in read-only transactions that may be served by a read replica.
+     *
+     * Requests for a wallet are recorded in the {@link HotWalletTracker} with their wait for the lock, to find the
+     * wallets behind lock contention. They are recorded after the lock is released, so tracking never makes the lock
+     * held longer.
+     */
     @Autowired
-    public WalletServiceImpl(WalletRepository walletRepository, StripeService stripeService) {
+    public WalletServiceImpl(WalletRepository walletRepository, StripeService stripeService,
+                             WalletIdIndex walletIdIndex, HoldRepository holdRepository,
+                             HoldExpiryScheduler holdExpiryScheduler, WalletEventRepository walletEventRepository,
+                             WalletTransactionRepository walletTransactionRepository,
+                             WalletDailyRollupRepository walletDailyRollupRepository,
+                             HotWalletTracker hotWalletTracker, PlatformTransactionManager transactionManager) {
         this.walletRepository = walletRepository;
         this.stripeService = stripeService;
+        this.walletIdIndex = walletIdIndex;
+        this.holdRepository = holdRepository;
+        this.holdExpiryScheduler = holdExpiryScheduler;
+        this.walletEventRepository = walletEventRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+        this.walletDailyRollupRepository = walletDailyRollupRepository;
+        this.hotWalletTracker = hotWalletTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     @Override
     public Wallet createWallet(Wallet wallet) {
         log.info("Creating wallet with an initial current balance of " + wallet.getCurrentBalance());
 
-        return walletRepository.save(wallet);
+        wallet.setHeldBalance(BigDecimal.ZERO);
+        Wallet walletCreated = transactionTemplate.execute(status -> walletRepository.save(wallet));
+        walletIdIndex.add(walletCreated.getId());
+
+        return walletCreated;
     }
 
     @Override
     public Wallet getWallet(String walletId) {
         log.info("Getting wallet with id - " + walletId);
 
-        readWriteLock.readLock().lock();
+        verifyWalletMightExist(walletId);
+
+        long lockWaitInNanos = lockForWallet(readWriteLock.readLock());
 
         try {
-            return getWalletById(walletId);
+            return ReplicaReadContext.readFromReplica(
+                    () -> readOnlyTransactionTemplate.execute(status -> getWalletById(walletId)));
         } finally {
             readWriteLock.readLock().unlock();
+            hotWalletTracker.record(walletId, lockWaitInNanos);
         }
     }
 
@@ -55,7 +136,9 @@ public class WalletServiceImpl implements WalletService {
     public void rechargeWallet(String walletId, Recharge recharge) {
         log.info("Recharging wallet with id - " + walletId + " with an amount of " + recharge.getAmount());
 
-        readWriteLock.writeLock().lock();
+        verifyWalletMightExist(walletId);
+
+        long lockWaitInNanos = lockForWallet(readWriteLock.writeLock());
 
         try {
             verifyRechargeIsValid(recharge);
@@ -64,11 +147,18 @@ public class WalletServiceImpl implements WalletService {
             verifyStripeServiceChargeIsValid(recharge);
 
             BigDecimal amount = recharge.getAmount();
-            wallet.addAmountToCurrentBalance(amount);
 
-            walletRepository.save(wallet);
+            transactionTemplate.executeWithoutResult(status -> {
+                BigDecimal previousCurrentBalance = wallet.getCurrentBalance();
+                wallet.addAmountToCurrentBalance(amount);
+
+                updateCurrentBalance(wallet, previousCurrentBalance);
+                recordEvent(wallet, WalletEventType.RECHARGED, amount);
+                recordTransaction(wallet, WalletTransactionType.RECHARGE, amount);
+            });
         } finally {
             readWriteLock.writeLock().unlock();
+            hotWalletTracker.record(walletId, lockWaitInNanos);
         }
     }
 
@@ -76,7 +166,9 @@ public class WalletServiceImpl implements WalletService {
     public void chargeWallet(String walletId, BigDecimal amount) {
         log.info("Charging wallet with id - " + walletId + " with an amount of " + amount);
 
-        readWriteLock.writeLock().lock();
+        verifyWalletMightExist(walletId);
+
+        long lockWaitInNanos = lockForWallet(readWriteLock.writeLock());
 
         try {
             if (amount == null) {
@@ -84,24 +176,347 @@ public class WalletServiceImpl implements WalletService {
             }
 
             Wallet wallet = getWalletById(walletId);
-            wallet.subtractAmountToCurrentBalance(amount);
 
-            walletRepository.save(wallet);
+            transactionTemplate.executeWithoutResult(status -> {
+                BigDecimal previousCurrentBalance = wallet.getCurrentBalance();
+                wallet.subtractAmountToCurrentBalance(amount);
+
+                updateCurrentBalance(wallet, previousCurrentBalance);
+                recordEvent(wallet, WalletEventType.CHARGED, amount);
+                recordTransaction(wallet, WalletTransactionType.CHARGE, amount);
+            });
         } finally {
             readWriteLock.writeLock().unlock();
+            hotWalletTracker.record(walletId, lockWaitInNanos);
         }
     }
 
+    @Override
+    public Hold holdAmount(String walletId, BigDecimal amount, Duration timeToLive) {
+        log.info("Holding an amount of " + amount + " in wallet with id - " + walletId);
+
+        verifyWalletMightExist(walletId);
+
+        readWriteLock.writeLock().lock();
+
+        try {
+            if (amount == null) {
+                throw new BusinessException("Hold amount cannot be null");
+            }
+
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new BusinessException("Hold amount must be positive", amount.toString());
+            }
+
+            if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+                throw new BusinessException("Hold time to live must be positive");
+            }
+
+            Wallet wallet = getWalletById(walletId);
+
+            Hold hold = transactionTemplate.execute(status -> {
+                wallet.holdAmount(amount);
+
+                walletRepository.save(wallet);
+                recordEvent(wallet, WalletEventType.HELD, amount);
+
+                return holdRepository.save(
+                        new Hold(null, walletId, amount, HoldStatus.OPEN, Instant.now().plus(timeToLive)));
+            });
+            holdExpiryScheduler.schedule(hold.getId(), hold.getExpiresAt(), this::expireHold);
+
+            return hold;
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void captureHold(String holdId) {
+        log.info("Capturing hold with id - " + holdId);
+
+        readWriteLock.writeLock().lock();
+
+        try {
+            Hold hold = getOpenHoldById(holdId);
+
+            Wallet wallet = getWalletById(hold.getWalletId());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                wallet.captureHeldAmount(hold.getAmount());
+
+                walletRepository.save(wallet);
+                closeHold(hold, HoldStatus.CAPTURED);
+                recordEvent(wallet, WalletEventType.CAPTURED, hold.getAmount());
+                recordTransaction(wallet, WalletTransactionType.CAPTURE, hold.getAmount());
+            });
+            holdExpiryScheduler.cancel(holdId);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        log.info("Releasing hold with id - " + holdId);
+
+        readWriteLock.writeLock().lock();
+
+        try {
+            releaseOpenHold(getOpenHoldById(holdId), HoldStatus.RELEASED, WalletEventType.RELEASED);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public TransactionPage getTransactions(String walletId, String cursor, int limit) {
+        log.info("Getting transactions of wallet with id - " + walletId);
+
+        verifyWalletMightExist(walletId);
+
+        if (limit < 1 || limit > MAX_TRANSACTIONS_PER_PAGE) {
+            throw new BusinessException("Limit must be between 1 and " + MAX_TRANSACTIONS_PER_PAGE,
+                                        String.valueOf(limit));
+        }
+
+        WalletTransaction after = cursor == null ? null : decodeCursor(cursor);
+        // One more movement than requested tells whether there is a next page
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+
+        List<WalletTransaction> transactions = ReplicaReadContext.readFromReplica(
+                () -> readOnlyTransactionTemplate.execute(status -> {
+                    getWalletById(walletId);
+
+                    if (after == null) {
+                        return walletTransactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(walletId,
+                                                                                                   pageRequest);
+                    }
+
+                    return walletTransactionRepository.findPageAfter(walletId, after.getCreatedAt(), after.getId(),
+                                                                     pageRequest);
+                }));
+
+        if (transactions.size() <= limit) {
+            return new TransactionPage(transactions, null);
+        }
+
+        List<WalletTransaction> page = transactions.subList(0, limit);
+
+        return new TransactionPage(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    @Override
+    public TransactionSummary getTransactionSummary(String walletId, LocalDate from, LocalDate to) {
+        log.info("Getting transaction summary of wallet with id - " + walletId + " from " + from + " to " + to);
+
+        verifyWalletMightExist(walletId);
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate firstDay = from == null ? today.with(TemporalAdjusters.firstDayOfMonth()) : from;
+        LocalDate lastDay = to == null ? today : to;
+
+        if (firstDay.isAfter(lastDay)) {
+            throw new BusinessException("Summary cannot start after it ends", firstDay.toString(), lastDay.toString());
+        }
+
+        if (ChronoUnit.DAYS.between(firstDay, lastDay) >= MAX_DAYS_PER_SUMMARY) {
+            throw new BusinessException("Summary cannot span more than " + MAX_DAYS_PER_SUMMARY + " days",
+                                        firstDay.toString(), lastDay.toString());
+        }
+
+        List<WalletDailyRollup> rollups = ReplicaReadContext.readFromReplica(
+                () -> readOnlyTransactionTemplate.execute(status -> {
+                    getWalletById(walletId);
+
+                    return walletDailyRollupRepository.findByWalletIdAndDayBetweenOrderByDayAsc(walletId, firstDay,
+                                                                                                lastDay);
+                }));
+
+        TransactionSummary summary =
+                new TransactionSummary(walletId, firstDay, lastDay, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        for (WalletDailyRollup rollup : rollups) {
+            summary.setTotalRecharged(summary.getTotalRecharged().add(rollup.getTotalRecharged()));
+            summary.setTotalCharged(summary.getTotalCharged().add(rollup.getTotalCharged()));
+            summary.setNumberOfTransactions(summary.getNumberOfTransactions() + rollup.getNumberOfTransactions());
+        }
+
+        return summary;
+    }
+
+    /**
+     * Schedules the expiry of the holds left open by a previous run of the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenHolds() {
+        int numberOfOpenHolds = 0;
+        String lastHoldId = "";
+        List<Hold> openHolds;
+
+        do {
+            openHolds = holdRepository.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(HoldStatus.OPEN, lastHoldId);
+
+            for (Hold hold : openHolds) {
+                holdExpiryScheduler.schedule(hold.getId(), hold.getExpiresAt(), this::expireHold);
+                lastHoldId = hold.getId();
+            }
+
+            numberOfOpenHolds += openHolds.size();
+        } while (!openHolds.isEmpty());
+
+        log.info("Scheduled the expiry of " + numberOfOpenHolds + " open holds");
+    }
+
+    private void expireHold(String holdId) {
+        readWriteLock.writeLock().lock();
+
+        try {
+            Optional<Hold> holdOptional = holdRepository.findById(holdId);
+
+            if (holdOptional.isPresent() && holdOptional.get().getStatus() == HoldStatus.OPEN) {
+                log.info("Hold with id " + holdId + " expired");
+
+                releaseOpenHold(holdOptional.get(), HoldStatus.EXPIRED, WalletEventType.EXPIRED);
+            }
+        } catch (RuntimeException exception) {
+            log.error("Could not release expired hold with id " + holdId, exception);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    private void releaseOpenHold(Hold hold, HoldStatus holdStatus, WalletEventType eventType) {
+        Wallet wallet = getWalletById(hold.getWalletId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            wallet.releaseHeldAmount(hold.getAmount());
+
+            walletRepository.save(wallet);
+            closeHold(hold, holdStatus);
+            recordEvent(wallet, eventType, hold.getAmount());
+        });
+        holdExpiryScheduler.cancel(hold.getId());
+    }
+
+    private void closeHold(Hold hold, HoldStatus status) {
+        hold.setStatus(status);
+        holdRepository.save(hold);
+    }
+
+    /**
+     * Takes the lock for a request on a wallet.
+     *
+     * @return the time waited for the lock in nanoseconds, to be recorded once the lock is released
+     */
+    private static long lockForWallet(Lock lock) {
+        long lockRequestTime = System.nanoTime();
+        lock.lock();
+
+        return System.nanoTime() - lockRequestTime;
+    }
+
+    /**
+     * Writes the change to the outbox, must be called in the transaction of the change.
+     */
+    private void recordEvent(Wallet wallet, WalletEventType type, BigDecimal amount) {
+        walletEventRepository.save(new WalletEvent(null, wallet.getId(), type, amount, wallet.getCurrentBalance(),
+                                                   wallet.getHeldBalance(), Instant.now()));
+    }
+
+    /**
+     * Writes the movement to the history and adds it to the rollup of its day, must be called in the transaction of
+     * the change. Writers are serialized by the write lock, so the rollup can be read and then saved.
+     */
+    /**
+     * Writes the new current balance of a wallet only if it still has the one it was read with, so a write made
+     * without the lock of this instance (from another instance, or by hand) is never overwritten.
+     */
+    private void updateCurrentBalance(Wallet wallet, BigDecimal previousCurrentBalance) {
+        if (walletRepository.updateCurrentBalance(wallet.getId(), previousCurrentBalance,
+                                                  wallet.getCurrentBalance()) == 0) {
+            throw new TechnicalException("Wallet with id " + wallet.getId() + " was changed by another request, retry");
+        }
+    }
+
+    private void recordTransaction(Wallet wallet, WalletTransactionType type, BigDecimal amount) {
+        // Truncated to what the database keeps, so cursors built from saved movements match the stored values
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        WalletTransaction transaction =
+                new WalletTransaction(null, wallet.getId(), type, amount, wallet.getCurrentBalance(), createdAt);
+        walletTransactionRepository.save(transaction);
+
+        LocalDate day = LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+        WalletDailyRollup rollup = walletDailyRollupRepository.findById(new WalletDailyRollupId(wallet.getId(), day))
+                                                              .orElseGet(() -> new WalletDailyRollup(
+                                                                      wallet.getId(), day, BigDecimal.ZERO,
+                                                                      BigDecimal.ZERO, 0));
+        rollup.addTransaction(transaction);
+
+        walletDailyRollupRepository.save(rollup);
+    }
+
+    /**
+     * Cursors point at the last movement of a page by its creation time and id, the same order as the index.
+     */
+    private static String encodeCursor(WalletTransaction transaction) {
+        String position = transaction.getCreatedAt() + "|" + transaction.getId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WalletTransaction decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = position.indexOf('|');
+
+            WalletTransaction transaction = new WalletTransaction();
+            transaction.setCreatedAt(Instant.parse(position.substring(0, separatorIndex)));
+            transaction.setId(Long.parseLong(position.substring(separatorIndex + 1)));
+
+            return transaction;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new BusinessException("Cursor " + cursor + " is not valid", cursor);
+        }
+    }
+
+    private Hold getOpenHoldById(String holdId) {
+        Hold hold = holdRepository.findById(holdId).orElseThrow(() -> {
+            log.error("Hold with id " + holdId + " does not exist.");
+
+            throw new BusinessException("Hold with id " + holdId + " does not exist.", holdId);
+        });
+
+        if (hold.getStatus() != HoldStatus.OPEN) {
+            throw new BusinessException("Hold with id " + holdId + " is " + hold.getStatus() + " and not open anymore.",
+                                        holdId, hold.getStatus().name());
+        }
+
+        return hold;
+    }
+
     private Wallet getWalletById(String walletId) {
         Optional<Wallet> walletOptional = walletRepository.findById(walletId);
 
         return walletOptional.orElseThrow(() -> {
+            walletIdIndex.recordMiss(walletId);
             log.error("Wallet with id " + walletId + " does not exist.");
 
             throw new BusinessException("Wallet with id " + walletId + " does not exist.", walletId);
         });
     }
 
+    /**
+     * Rejects ids the index knows were never created, without taking the lock or querying the repository.
+     */
+    private void verifyWalletMightExist(String walletId) {
+        if (!walletIdIndex.mightContain(walletId)) {
+            log.debug("Wallet with id " + walletId + " rejected by the wallet id index");
+
+            throw new BusinessException("Wallet with id " + walletId + " does not exist.", walletId);
+        }
+    }
+
     private void verifyRechargeIsValid(Recharge recharge) {
         if (recharge.getCreditCardNumber() == null) {
             throw new BusinessException("Credit card number cannot be null");
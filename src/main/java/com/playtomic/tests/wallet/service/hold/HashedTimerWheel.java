@@ -0,0 +1,254 @@
+package com.playtomic.tests.wallet.service.hold;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timer wheel: schedules and cancels tasks in constant time, at the price of firing them with a precision of
+ * one tick.
+ *
+ * The wheel is an array of buckets, one per tick. A task is put in the bucket of the tick it expires on, with the
+ * number of full turns of the wheel left before it is due. A single worker thread advances one bucket per tick and
+ * hands the tasks that are due to the task executor. Callers never touch the buckets: new and cancelled tasks are
+ * queued and picked up by the worker on its next tick.
+ */
+public class HashedTimerWheel {
+    private static final int MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100000;
+
+    private final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    private final long tickDurationInNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numberOfPendingTimeouts = new AtomicInteger();
+    private final Thread workerThread;
+    private final long startTime;
+
+    private volatile boolean stopped;
+    private long tick;
+
+    public HashedTimerWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+        Assert.isTrue(tickDuration > 0, "tickDuration must be positive");
+        Assert.isTrue(ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1,
+                      "ticksPerWheel must be a power of two");
+
+        this.tickDurationInNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[ticksPerWheel];
+        this.mask = ticksPerWheel - 1;
+        this.taskExecutor = taskExecutor;
+
+        for (int i = 0; i < ticksPerWheel; i++) {
+            wheel[i] = new Bucket();
+        }
+
+        this.startTime = System.nanoTime();
+        this.workerThread = new Thread(this::runWorker, "hashed-timer-wheel");
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Assert.state(!stopped, "Timer wheel is stopped");
+
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay)));
+        numberOfPendingTimeouts.incrementAndGet();
+        pendingTimeouts.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Number of scheduled tasks that have not expired nor been cancelled yet.
+     */
+    public int getNumberOfPendingTimeouts() {
+        return numberOfPendingTimeouts.get();
+    }
+
+    public void stop() {
+        stopped = true;
+        workerThread.interrupt();
+    }
+
+    private void runWorker() {
+        while (!stopped) {
+            long deadline = waitForNextTick();
+
+            if (deadline < 0) {
+                continue;
+            }
+
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts();
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickDurationInNanos * (tick + 1);
+        long sleepTimeInNanos = deadline - (System.nanoTime() - startTime);
+
+        if (sleepTimeInNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepTimeInNanos);
+            } catch (InterruptedException interruptedException) {
+                return -1;
+            }
+        }
+
+        return deadline;
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        for (int i = 0; i < MAX_TIMEOUTS_TRANSFERRED_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+
+            if (timeout == null) {
+                return;
+            }
+
+            if (timeout.state.get() == Timeout.CANCELLED) {
+                continue;
+            }
+
+            long expirationTick = timeout.deadline / tickDurationInNanos;
+            timeout.remainingRounds = (expirationTick - tick) / wheel.length;
+
+            // Timeouts already due go in the current bucket, which is expired right after
+            wheel[(int) (Math.max(expirationTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    public final class Timeout {
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return true if the task was cancelled before it expired
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(SCHEDULED, CANCELLED)) {
+                return false;
+            }
+
+            numberOfPendingTimeouts.decrementAndGet();
+            cancelledTimeouts.add(this);
+
+            return true;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(SCHEDULED, EXPIRED)) {
+                return;
+            }
+
+            numberOfPendingTimeouts.decrementAndGet();
+
+            try {
+                taskExecutor.execute(task);
+            } catch (RuntimeException exception) {
+                log.error("Could not run expired timer wheel task", exception);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, only accessed by the worker thread.
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts() {
+            Timeout timeout = head;
+
+            while (timeout != null) {
+                Timeout next = timeout.next;
+
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.state.get() == Timeout.CANCELLED) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+
+            if (timeout == head) {
+                head = timeout.next;
+            }
+
+            if (timeout == tail) {
+                tail = timeout.previous;
+            }
+
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
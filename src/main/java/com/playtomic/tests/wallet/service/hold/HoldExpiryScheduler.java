@@ -0,0 +1,77 @@
+package com.playtomic.tests.wallet.service.hold;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Releases open holds when they expire, using a {@link HashedTimerWheel} instead of polling the database.
+ *
+ * Expirations run one at a time on a dedicated thread, so a slow release never delays the ticks of the wheel.
+ */
+@Component
+public class HoldExpiryScheduler {
+    private final HashedTimerWheel timerWheel;
+    private final ExecutorService expirationExecutor;
+    private final Map<String, AtomicReference<HashedTimerWheel.Timeout>> timeoutsByHoldId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HoldExpiryScheduler(@Value("${wallet.hold.tick-duration-ms:100}") long tickDurationInMillis,
+                               @Value("${wallet.hold.ticks-per-wheel:1024}") int ticksPerWheel) {
+        this.expirationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.timerWheel =
+                new HashedTimerWheel(tickDurationInMillis, TimeUnit.MILLISECONDS, ticksPerWheel, expirationExecutor);
+    }
+
+    /**
+     * The hold is registered before its timeout is armed, and the expiry only removes its own registration, so a
+     * timeout firing right away never leaves a stale entry nor removes the one of a later schedule.
+     */
+    public void schedule(String holdId, Instant expiresAt, Consumer<String> onExpiry) {
+        long delayInMillis = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+        AtomicReference<HashedTimerWheel.Timeout> timeout = new AtomicReference<>();
+
+        cancel(timeoutsByHoldId.put(holdId, timeout));
+
+        timeout.set(timerWheel.schedule(() -> {
+            timeoutsByHoldId.remove(holdId, timeout);
+            onExpiry.accept(holdId);
+        }, delayInMillis, TimeUnit.MILLISECONDS));
+    }
+
+    public void cancel(String holdId) {
+        cancel(timeoutsByHoldId.remove(holdId));
+    }
+
+    public int getNumberOfScheduledHolds() {
+        return timerWheel.getNumberOfPendingTimeouts();
+    }
+
+    private static void cancel(AtomicReference<HashedTimerWheel.Timeout> timeout) {
+        if (timeout != null && timeout.get() != null) {
+            timeout.get().cancel();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timerWheel.stop();
+        expirationExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.playtomic.tests.wallet.service.hotkey;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Count-Min Sketch of strings, counting how many times each key was added and the sum of a value added
+ * with it.
+ *
+ * Uses a fixed amount of memory however many keys are added. Counts are never underestimated: each key has a cell
+ * per row, and its estimate is the cell with the lowest count, the one shared with the fewest other keys. The sum
+ * is read from that same cell, so dividing it by the count gives an average dominated by the key itself.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    // Count and sum of a cell are next to each other, usually in the same cache line
+    private final AtomicLongArray cells;
+
+    public CountMinSketch(int depth, int width) {
+        Assert.isTrue(depth > 0, "depth must be positive");
+        Assert.isTrue(width > 0, "width must be positive");
+
+        this.depth = depth;
+        this.width = width;
+        this.cells = new AtomicLongArray(depth * width * 2);
+    }
+
+    /**
+     * Adds one occurrence of the key with the given value.
+     *
+     * @return the estimated count of the key, including this occurrence
+     */
+    public long add(String key, long value) {
+        long hash = hash(key);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        long minimumCount = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            int cellIndex = getCellIndex(row, hash1 + row * hash2);
+
+            minimumCount = Math.min(minimumCount, cells.incrementAndGet(cellIndex));
+            cells.addAndGet(cellIndex + 1, value);
+        }
+
+        return minimumCount;
+    }
+
+    public Estimate estimate(String key) {
+        long hash = hash(key);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        long minimumCount = Long.MAX_VALUE;
+        long sum = 0;
+
+        for (int row = 0; row < depth; row++) {
+            int cellIndex = getCellIndex(row, hash1 + row * hash2);
+            long count = cells.get(cellIndex);
+
+            if (count < minimumCount) {
+                minimumCount = count;
+                sum = cells.get(cellIndex + 1);
+            }
+        }
+
+        return new Estimate(minimumCount, sum);
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, 0);
+        }
+    }
+
+    private int getCellIndex(int row, long hash) {
+        return (row * width + (int) Math.floorMod(hash, (long) width)) * 2;
+    }
+
+    /**
+     * FNV-1a of the key. The key is read once, the hashes of the rows are derived from this single value.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer, spreads the FNV-1a result over all 64 bits.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    public static final class Estimate {
+        private final long count;
+        private final long sum;
+
+        private Estimate(long count, long sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.playtomic.tests.wallet.service.hotkey;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HotWallet {
+    private final String walletId;
+    private final long numberOfRequests;
+    private final double requestsPerSecond;
+    private final double averageLockWaitInMillis;
+}
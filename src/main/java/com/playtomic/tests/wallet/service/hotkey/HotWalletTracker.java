@@ -0,0 +1,234 @@
+package com.playtomic.tests.wallet.service.hotkey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the wallets with the most requests in a rolling time window, together with how long their requests waited
+ * for the wallet lock, in constant memory.
+ *
+ * The window is split in buckets, each one with a {@link CountMinSketch} of the wallet ids and a small set of
+ * candidates for the top wallets. Recording a request only updates the sketch of the current bucket and, for the
+ * rare wallet that overtakes the smallest candidate, the candidate set. The oldest bucket is cleared and reused when
+ * the window moves past it, so requests recorded right at that moment may be counted approximately. A bucket only
+ * ever moves forward: a request whose time was read before its bucket was reused for a later epoch is dropped instead
+ * of clearing the newer counts.
+ *
+ * Only one request in wallet.hot-wallets.sample-rate is recorded, chosen at random, and the counts reported are
+ * scaled back up by that rate. The busiest wallets get thousands of requests per window, so they are still found,
+ * while most requests only pay for a random number. With a rate of 1 every request is recorded and counted.
+ */
+@Component
+public class HotWalletTracker {
+    private final boolean enabled;
+    private final int numberOfHotWallets;
+    private final int sampleRate;
+    private final long bucketDurationInMillis;
+    private final Bucket[] buckets;
+    private final LongSupplier currentTimeMillis;
+    private final long startTime;
+
+    @Autowired
+    public HotWalletTracker(@Value("${wallet.hot-wallets.enabled:true}") boolean enabled,
+                            @Value("${wallet.hot-wallets.top-k:20}") int numberOfHotWallets,
+                            @Value("${wallet.hot-wallets.window-seconds:60}") int windowInSeconds,
+                            @Value("${wallet.hot-wallets.buckets:6}") int numberOfBuckets,
+                            @Value("${wallet.hot-wallets.sketch-width:2048}") int sketchWidth,
+                            @Value("${wallet.hot-wallets.sample-rate:16}") int sampleRate) {
+        this(enabled, numberOfHotWallets, windowInSeconds, numberOfBuckets, sketchWidth, sampleRate,
+             System::currentTimeMillis);
+    }
+
+    public HotWalletTracker(boolean enabled, int numberOfHotWallets, int windowInSeconds, int numberOfBuckets,
+                            int sketchWidth, int sampleRate, LongSupplier currentTimeMillis) {
+        Assert.isTrue(numberOfHotWallets > 0, "numberOfHotWallets must be positive");
+        Assert.isTrue(sampleRate > 0, "sampleRate must be positive");
+        Assert.isTrue(numberOfBuckets > 0, "numberOfBuckets must be positive");
+        Assert.isTrue(windowInSeconds * 1000L >= numberOfBuckets, "window must last at least a milli per bucket");
+
+        this.enabled = enabled;
+        this.numberOfHotWallets = numberOfHotWallets;
+        this.sampleRate = sampleRate;
+        this.bucketDurationInMillis = windowInSeconds * 1000L / numberOfBuckets;
+        this.buckets = new Bucket[numberOfBuckets];
+        this.currentTimeMillis = currentTimeMillis;
+        this.startTime = currentTimeMillis.getAsLong();
+
+        for (int i = 0; i < numberOfBuckets; i++) {
+            // Twice as many candidates as reported, so wallets near the bottom of the ranking are not missed
+            buckets[i] = new Bucket(new CountMinSketch(4, sketchWidth), numberOfHotWallets * 2);
+        }
+    }
+
+    /**
+     * Records a request for a wallet that waited the given time for its lock, if it is sampled.
+     */
+    public void record(String walletId, long lockWaitInNanos) {
+        if (!enabled || (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0)) {
+            return;
+        }
+
+        long epoch = currentTimeMillis.getAsLong() / bucketDurationInMillis;
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+
+        if (bucket.epoch < epoch) {
+            bucket.reset(epoch);
+        } else if (bucket.epoch > epoch) {
+            // The time was read before another thread moved the bucket to a later epoch, the request is dropped
+            return;
+        }
+
+        bucket.record(walletId, lockWaitInNanos);
+    }
+
+    /**
+     * Wallets with the most requests in the window, the busiest first.
+     */
+    public List<HotWallet> getHotWallets() {
+        long now = currentTimeMillis.getAsLong();
+        long currentEpoch = now / bucketDurationInMillis;
+
+        List<Bucket> bucketsInWindow = new ArrayList<>();
+        Set<String> walletIds = new HashSet<>();
+
+        for (Bucket bucket : buckets) {
+            if (bucket.epoch > currentEpoch - buckets.length && bucket.epoch <= currentEpoch) {
+                bucketsInWindow.add(bucket);
+                walletIds.addAll(bucket.candidates);
+            }
+        }
+
+        double windowInSeconds = getWindowInMillis(now) / 1000.0;
+        List<HotWallet> hotWallets = new ArrayList<>();
+
+        for (String walletId : walletIds) {
+            long numberOfRequests = 0;
+            long lockWaitInNanos = 0;
+
+            for (Bucket bucket : bucketsInWindow) {
+                CountMinSketch.Estimate estimate = bucket.sketch.estimate(walletId);
+                numberOfRequests += estimate.getCount();
+                lockWaitInNanos += estimate.getSum();
+            }
+
+            if (numberOfRequests > 0) {
+                double averageLockWaitInMillis = lockWaitInNanos / 1_000_000.0 / numberOfRequests;
+                numberOfRequests *= sampleRate;
+
+                hotWallets.add(new HotWallet(walletId, numberOfRequests, numberOfRequests / windowInSeconds,
+                                             averageLockWaitInMillis));
+            }
+        }
+
+        return hotWallets.stream()
+                         .sorted(Comparator.comparingLong(HotWallet::getNumberOfRequests).reversed())
+                         .limit(numberOfHotWallets)
+                         .collect(Collectors.toList());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getWindowInMillis() {
+        return getWindowInMillis(currentTimeMillis.getAsLong());
+    }
+
+    /**
+     * Time covered by the buckets in the window: the full older buckets and the elapsed part of the current one.
+     */
+    private long getWindowInMillis(long now) {
+        long windowInMillis = (buckets.length - 1) * bucketDurationInMillis + now % bucketDurationInMillis;
+
+        return Math.max(1, Math.min(windowInMillis, now - startTime));
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+        private final int maxNumberOfCandidates;
+
+        private volatile long epoch = -1;
+        private volatile long admissionThreshold;
+
+        private Bucket(CountMinSketch sketch, int maxNumberOfCandidates) {
+            this.sketch = sketch;
+            this.maxNumberOfCandidates = maxNumberOfCandidates;
+        }
+
+        private void record(String walletId, long lockWaitInNanos) {
+            long count = sketch.add(walletId, lockWaitInNanos);
+
+            if (count > admissionThreshold && !candidates.contains(walletId)) {
+                admit(walletId, count);
+            }
+        }
+
+        /**
+         * Adds a wallet to the candidates, replacing the one with the lowest count when there is no room left.
+         */
+        private synchronized void admit(String walletId, long count) {
+            if (candidates.contains(walletId)) {
+                return;
+            }
+
+            if (candidates.size() >= maxNumberOfCandidates) {
+                String leastRequestedWalletId = null;
+                long lowestCount = Long.MAX_VALUE;
+
+                for (String candidate : candidates) {
+                    long candidateCount = sketch.estimate(candidate).getCount();
+
+                    if (candidateCount < lowestCount) {
+                        leastRequestedWalletId = candidate;
+                        lowestCount = candidateCount;
+                    }
+                }
+
+                if (count <= lowestCount) {
+                    admissionThreshold = lowestCount;
+
+                    return;
+                }
+
+                candidates.remove(leastRequestedWalletId);
+            }
+
+            candidates.add(walletId);
+
+            if (candidates.size() >= maxNumberOfCandidates) {
+                admissionThreshold = candidates.stream()
+                                               .mapToLong(candidate -> sketch.estimate(candidate).getCount())
+                                               .min()
+                                               .orElse(0);
+            }
+        }
+
+        private synchronized void reset(long newEpoch) {
+            if (newEpoch <= epoch) {
+                return;
+            }
+
+            sketch.clear();
+            candidates.clear();
+            admissionThreshold = 0;
+            epoch = newEpoch;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.playtomic.tests.wallet.service.hotkey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin tool to find the wallets behind lock contention: lists the wallets with the most requests in the rolling
+ * window, with their request rate and average wait for the wallet lock. It reveals the ids of the busiest wallets, so
+ * it is only served on the management port and requires the wallet.management.token.
+ */
+@Component
+@Endpoint(id = "hotwallets")
+public class HotWalletsEndpoint {
+    private final HotWalletTracker hotWalletTracker;
+
+    @Autowired
+    public HotWalletsEndpoint(HotWalletTracker hotWalletTracker) {
+        this.hotWalletTracker = hotWalletTracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotWallets() {
+        Map<String, Object> hotWallets = new LinkedHashMap<>();
+        hotWallets.put("enabled", hotWalletTracker.isEnabled());
+        hotWallets.put("sampleRate", hotWalletTracker.getSampleRate());
+        hotWallets.put("windowInMillis", hotWalletTracker.getWindowInMillis());
+        hotWallets.put("wallets", hotWalletTracker.getHotWallets());
+
+        return hotWallets;
+    }
+}
@@ -0,0 +1,103 @@
+package com.playtomic.tests.wallet.service.index;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of strings.
+ *
+ * Answers "definitely not present" or "might be present". Bits are only ever set, so concurrent readers never see
+ * a value disappear once it has been added.
+ */
+public class BloomFilter {
+    private static final double LN_2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long numberOfBits;
+    private final int numberOfHashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        Assert.isTrue(expectedInsertions > 0, "expectedInsertions must be positive");
+        Assert.isTrue(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                      "falsePositiveProbability must be between 0 and 1");
+
+        long optimalNumberOfBits =
+                (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2));
+        int numberOfWords = (int) Math.min(Integer.MAX_VALUE, (optimalNumberOfBits + 63) / 64);
+
+        this.words = new AtomicLongArray(numberOfWords);
+        this.numberOfBits = numberOfWords * 64L;
+        this.numberOfHashFunctions =
+                Math.max(1, (int) Math.round((double) numberOfBits / expectedInsertions * LN_2));
+    }
+
+    public void put(String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < numberOfHashFunctions; i++) {
+            long bitIndex = Math.floorMod(hash1 + i * hash2, numberOfBits);
+            int wordIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < numberOfHashFunctions; i++) {
+            long bitIndex = Math.floorMod(hash1 + i * hash2, numberOfBits);
+
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Probability that a value never added is reported as present, given how many bits are currently set.
+     */
+    public double expectedFalsePositiveProbability() {
+        long bitsSet = 0;
+
+        for (int i = 0; i < words.length(); i++) {
+            bitsSet += Long.bitCount(words.get(i));
+        }
+
+        return Math.pow((double) bitsSet / numberOfBits, numberOfHashFunctions);
+    }
+
+    public long getNumberOfBits() {
+        return numberOfBits;
+    }
+
+    public int getNumberOfHashFunctions() {
+        return numberOfHashFunctions;
+    }
+
+    private static long hash(String value, long seed) {
+        long hash = seed;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+
+        // MurmurHash3 finalizer, spreads the FNV-1a result over all 64 bits
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,102 @@
+package com.playtomic.tests.wallet.service.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the ids of every known wallet, backed by a {@link BloomFilter}.
+ *
+ * Lets the service reject ids that definitely do not exist before taking any lock or touching the database. Until
+ * {@link #markReady()} is called (once the existing ids have been loaded) every id is reported as possibly known,
+ * so nothing is rejected while the index is incomplete.
+ *
+ * Only ids created through this instance are added, so it assumes a single instance creates wallets; it is only
+ * marked ready when wallet.index.enabled is set.
+ */
+@Component
+public class WalletIdIndex {
+    private final BloomFilter bloomFilter;
+    private final Counter rejectedLookups;
+    private final Counter passedLookups;
+    private final Counter falsePositives;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public WalletIdIndex(MeterRegistry meterRegistry,
+                         @Value("${wallet.index.expected-insertions:1000000}") long expectedInsertions,
+                         @Value("${wallet.index.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+
+        this.rejectedLookups = Counter.builder("wallet.index.lookups")
+                                      .description("Wallet id lookups answered by the index")
+                                      .tag("result", "rejected")
+                                      .register(meterRegistry);
+        this.passedLookups = Counter.builder("wallet.index.lookups")
+                                    .description("Wallet id lookups answered by the index")
+                                    .tag("result", "passed")
+                                    .register(meterRegistry);
+        this.falsePositives = Counter.builder("wallet.index.false.positives")
+                                     .description("Unknown wallet ids the index let through to the database")
+                                     .register(meterRegistry);
+
+        Gauge.builder("wallet.index.false.positive.rate", this, WalletIdIndex::getFalsePositiveRate)
+             .description("Observed share of unknown wallet ids that were not rejected by the index")
+             .register(meterRegistry);
+        Gauge.builder("wallet.index.expected.false.positive.probability", bloomFilter,
+                      BloomFilter::expectedFalsePositiveProbability)
+             .description("False positive probability predicted from the bits currently set in the index")
+             .register(meterRegistry);
+    }
+
+    public boolean mightContain(String walletId) {
+        if (!ready) {
+            return true;
+        }
+
+        if (bloomFilter.mightContain(walletId)) {
+            passedLookups.increment();
+
+            return true;
+        }
+
+        rejectedLookups.increment();
+
+        return false;
+    }
+
+    public void add(String walletId) {
+        bloomFilter.put(walletId);
+    }
+
+    /**
+     * Records that an id let through by the index was not found in the database.
+     */
+    public void recordMiss(String walletId) {
+        if (ready) {
+            falsePositives.increment();
+        }
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Share of lookups for unknown ids that the index failed to reject.
+     */
+    public double getFalsePositiveRate() {
+        double falsePositiveCount = falsePositives.count();
+        double unknownIdLookups = falsePositiveCount + rejectedLookups.count();
+
+        return unknownIdLookups == 0 ? 0 : falsePositiveCount / unknownIdLookups;
+    }
+}
@@ -0,0 +1,62 @@
+package com.playtomic.tests.wallet.service.index;
+
+import com.playtomic.tests.wallet.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Fills the {@link WalletIdIndex} with the ids already stored once the application is up.
+ *
+ * The index rejects unknown ids locally, so it must only be enabled when this instance sees every wallet creation
+ * (a single instance, or instances that share wallet creation through another channel). With several instances
+ * writing to the same database a wallet created by another instance would be reported as missing, which is why the
+ * index is disabled unless wallet.index.enabled is set.
+ */
+@Component
+public class WalletIdIndexLoader {
+    private final Logger log = LoggerFactory.getLogger(WalletIdIndexLoader.class);
+
+    private final WalletRepository walletRepository;
+    private final WalletIdIndex walletIdIndex;
+    private final boolean enabled;
+
+    @Autowired
+    public WalletIdIndexLoader(WalletRepository walletRepository, WalletIdIndex walletIdIndex,
+                               @Value("${wallet.index.enabled:false}") boolean enabled) {
+        this.walletRepository = walletRepository;
+        this.walletIdIndex = walletIdIndex;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadWalletIds() {
+        if (!enabled) {
+            log.info("Wallet id index is disabled, every wallet id will be looked up in the database");
+
+            return;
+        }
+
+        AtomicLong numberOfIds = new AtomicLong();
+
+        try (Stream<String> walletIds = walletRepository.streamAllIds()) {
+            walletIds.forEach(walletId -> {
+                walletIdIndex.add(walletId);
+                numberOfIds.incrementAndGet();
+            });
+        }
+
+        walletIdIndex.markReady();
+
+        log.info("Wallet id index loaded with " + numberOfIds.get() + " wallet ids");
+    }
+}
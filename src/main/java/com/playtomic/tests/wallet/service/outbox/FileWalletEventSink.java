@@ -0,0 +1,53 @@
+package com.playtomic.tests.wallet.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink for local testing that appends every event as a JSON line to a file.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.sink", havingValue = "file")
+public class FileWalletEventSink implements WalletEventSink {
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    @Autowired
+    public FileWalletEventSink(ObjectMapper objectMapper,
+                               @Value("${wallet.outbox.file.path:wallet-events.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(path);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<WalletEvent> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                                                             StandardOpenOption.APPEND)) {
+            for (WalletEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        } catch (IOException ioException) {
+            throw new TechnicalException("Could not write wallet events to " + file + ": " + ioException.getMessage());
+        }
+    }
+}
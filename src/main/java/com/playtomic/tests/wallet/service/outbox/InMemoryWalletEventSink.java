@@ -0,0 +1,48 @@
+package com.playtomic.tests.wallet.service.outbox;
+
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process sink for local testing, keeps the last published events in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryWalletEventSink implements WalletEventSink {
+    private final Deque<WalletEvent> publishedEvents = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger numberOfPublishedEvents = new AtomicInteger();
+    private final int capacity;
+
+    public InMemoryWalletEventSink(@Value("${wallet.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public void publish(List<WalletEvent> events) {
+        for (WalletEvent event : events) {
+            publishedEvents.addLast(event);
+
+            if (numberOfPublishedEvents.incrementAndGet() > capacity) {
+                publishedEvents.pollFirst();
+                numberOfPublishedEvents.decrementAndGet();
+            }
+        }
+    }
+
+    public List<WalletEvent> getPublishedEvents() {
+        return new ArrayList<>(publishedEvents);
+    }
+}
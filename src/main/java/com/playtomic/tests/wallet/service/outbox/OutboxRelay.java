@@ -0,0 +1,93 @@
+package com.playtomic.tests.wallet.service.outbox;
+
+import com.playtomic.tests.wallet.dto.OutboxOffset;
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import com.playtomic.tests.wallet.repository.OutboxOffsetRepository;
+import com.playtomic.tests.wallet.repository.WalletEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drains the wallet outbox to the configured {@link WalletEventSink} in the background, in batches.
+ *
+ * The relay remembers the id of the last event delivered to each sink, and only deletes the events every sink with an
+ * offset has received, so a sink that lags behind, or the previous sink after wallet.outbox.sink is switched, still
+ * gets them. A sink gets an offset the first time it is polled, and only sees the events still in the outbox at that
+ * point. Ids only grow in commit order because every change that writes an event does it under the write lock of the
+ * wallet service, so an event is never committed behind an offset that was already delivered.
+ *
+ * The offset of a sink that is retired for good must be deleted from wallet_outbox_offset, or the outbox is never
+ * pruned past it.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final WalletEventRepository walletEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final WalletEventSink walletEventSink;
+    private final int batchSize;
+
+    @Autowired
+    public OutboxRelay(WalletEventRepository walletEventRepository, OutboxOffsetRepository outboxOffsetRepository,
+                       WalletEventSink walletEventSink, @Value("${wallet.outbox.batch-size:500}") int batchSize) {
+        this.walletEventRepository = walletEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.walletEventSink = walletEventSink;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.outbox.poll-interval-ms:200}")
+    public void relayEvents() {
+        try {
+            int numberOfEventsDelivered;
+
+            do {
+                numberOfEventsDelivered = relayNextBatch();
+            } while (numberOfEventsDelivered == batchSize);
+        } catch (RuntimeException exception) {
+            log.error("Could not relay wallet events to sink " + walletEventSink.getName(), exception);
+        }
+    }
+
+    /**
+     * Delivers the next batch of events after the stored offset.
+     *
+     * @return the number of events delivered
+     */
+    public int relayNextBatch() {
+        OutboxOffset offset = outboxOffsetRepository.findById(walletEventSink.getName())
+                                                    .orElseGet(() -> outboxOffsetRepository.save(
+                                                            new OutboxOffset(walletEventSink.getName(), 0L)));
+
+        List<WalletEvent> events = walletEventRepository.findByIdGreaterThanOrderByIdAsc(
+                offset.getLastDeliveredId(), PageRequest.of(0, batchSize));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        walletEventSink.publish(events);
+
+        Long lastDeliveredId = events.get(events.size() - 1).getId();
+        offset.setLastDeliveredId(lastDeliveredId);
+        outboxOffsetRepository.save(offset);
+
+        Long lastDeliveredIdOfAllSinks = outboxOffsetRepository.findMinLastDeliveredId();
+
+        if (lastDeliveredIdOfAllSinks != null && lastDeliveredIdOfAllSinks > 0) {
+            walletEventRepository.deleteUpTo(lastDeliveredIdOfAllSinks);
+        }
+
+        return events.size();
+    }
+}
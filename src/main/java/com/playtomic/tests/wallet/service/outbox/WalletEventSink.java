@@ -0,0 +1,20 @@
+package com.playtomic.tests.wallet.service.outbox;
+
+import com.playtomic.tests.wallet.dto.WalletEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the wallet events drained from the outbox.
+ *
+ * Events are delivered at least once, in id order. A sink signals a failed delivery by throwing, in which case the
+ * same batch is delivered again on the next run of the relay.
+ */
+public interface WalletEventSink {
+    /**
+     * Name under which the delivered offset of this sink is stored.
+     */
+    String getName();
+
+    void publish(List<WalletEvent> events);
+}
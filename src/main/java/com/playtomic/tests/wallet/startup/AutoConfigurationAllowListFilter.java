@@ -0,0 +1,42 @@
+package com.playtomic.tests.wallet.startup;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Restricts auto-configuration to the classes listed in {@code wallet.startup.auto-configurations}.
+ *
+ * Runs before any auto-configuration class is loaded or its conditions are evaluated, so everything outside the
+ * list costs nothing at startup. When the property is not set every auto-configuration is kept.
+ */
+public class AutoConfigurationAllowListFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+    static final String AUTO_CONFIGURATIONS_PROPERTY = "wallet.startup.auto-configurations";
+
+    private Set<String> allowedAutoConfigurations = Collections.emptySet();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        allowedAutoConfigurations = Binder.get(environment)
+                                          .bind(AUTO_CONFIGURATIONS_PROPERTY, Bindable.setOf(String.class))
+                                          .orElse(Collections.emptySet());
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            matches[i] = allowedAutoConfigurations.isEmpty()
+                         || allowedAutoConfigurations.contains(autoConfigurationClasses[i]);
+        }
+
+        return matches;
+    }
+}
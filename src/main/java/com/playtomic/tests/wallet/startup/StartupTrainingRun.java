@@ -0,0 +1,61 @@
+package com.playtomic.tests.wallet.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Training run used to build the Class Data Sharing archive of the Docker image.
+ *
+ * Once the application is ready it serves one request to itself, so the classes of the request path are loaded
+ * too, and then exits. Enabled with {@code wallet.startup.exit-after-ready=true}.
+ */
+@Lazy(false)
+@Component
+@ConditionalOnProperty("wallet.startup.exit-after-ready")
+public class StartupTrainingRun {
+    private final Logger log = LoggerFactory.getLogger(StartupTrainingRun.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterFirstRequest(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        String port = context.getEnvironment().getProperty("local.server.port");
+
+        try {
+            sendFirstRequest(port);
+        } catch (IOException ioException) {
+            log.error("Training request failed", ioException);
+        }
+
+        log.info("Training run finished, exiting");
+
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private void sendFirstRequest(String port) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/wallet")
+                .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write("{\"currentBalance\":100}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.info("Training request answered with status " + connection.getResponseCode());
+        connection.disconnect();
+    }
+}
@@ -0,0 +1,6 @@
+create table if not exists wallet (
+    id varchar(255) not null,
+    current_balance decimal(19, 2),
+    held_balance decimal(19, 2),
+    primary key (id)
+);
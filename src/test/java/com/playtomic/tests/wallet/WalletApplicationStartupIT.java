@@ -0,0 +1,60 @@
+package com.playtomic.tests.wallet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark: time from launching the application in startup mode until its first request is answered.
+ *
+ * Integration tests run in a fresh JVM each, so this is a cold start. The budget can be tightened with
+ * -Dwallet.startup.budget-ms when running mvn verify.
+ */
+public class WalletApplicationStartupIT {
+    private static final long TIME_TO_FIRST_REQUEST_BUDGET_MILLIS = Long.getLong("wallet.startup.budget-ms", 20000);
+
+    private final Logger log = LoggerFactory.getLogger(WalletApplicationStartupIT.class);
+
+    @Test
+    public void startupModeAnswersFirstRequestWithinBudget() throws Exception {
+        // Arrange
+        long launchTime = System.nanoTime();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WalletApplication.class)
+                .run("--spring.profiles.active=startup", "--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_ON_EXIT=FALSE")) {
+            long startedTime = System.nanoTime();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // Act
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/wallet"))
+                               .header("Content-Type", "application/json")
+                               .POST(HttpRequest.BodyPublishers.ofString("{\"currentBalance\":100}"))
+                               .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long firstResponseTime = System.nanoTime();
+
+            // Assert
+            long startupMillis = TimeUnit.NANOSECONDS.toMillis(startedTime - launchTime);
+            long timeToFirstRequestMillis = TimeUnit.NANOSECONDS.toMillis(firstResponseTime - launchTime);
+            log.info("Startup benchmark: context started in " + startupMillis + " ms, first request answered in "
+                     + timeToFirstRequestMillis + " ms");
+
+            Assertions.assertEquals(201, response.statusCode());
+            Assertions.assertTrue(timeToFirstRequestMillis < TIME_TO_FIRST_REQUEST_BUDGET_MILLIS,
+                                  "Time to first request of " + timeToFirstRequestMillis + " ms is over the budget of "
+                                  + TIME_TO_FIRST_REQUEST_BUDGET_MILLIS + " ms");
+        }
+    }
+}
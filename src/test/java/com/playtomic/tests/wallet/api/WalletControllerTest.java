@@ -0,0 +1,162 @@
+package com.playtomic.tests.wallet.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.domain.TransactionSummary;
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.service.WalletService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(WalletController.class)
+@ActiveProfiles(profiles = "test")
+public class WalletControllerTest {
+    private static final String MOCK_WALLET_ID = "e7c08fea-447b-4744-bbda-a81b6944bd74";
+    private static final BigDecimal INITIAL_CURRENT_BALANCE_OF_WALLET = new BigDecimal(1000);
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private WalletService walletService;
+
+    @Test
+    public void getWalletWithoutAcceptHeaderReturnsJson() throws Exception {
+        // Arrange
+        when(walletService.getWallet(MOCK_WALLET_ID)).thenReturn(createWalletInstance());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID))
+                                  .andExpect(status().isOk())
+                                  .andReturn();
+
+        // Assert
+        Assertions.assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(
+                MediaType.valueOf(result.getResponse().getContentType())));
+        assertWalletEquals(new ObjectMapper(), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void getWalletAsSmileSuccessfully() throws Exception {
+        // Arrange
+        when(walletService.getWallet(MOCK_WALLET_ID)).thenReturn(createWalletInstance());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID).accept(APPLICATION_SMILE))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentTypeCompatibleWith(APPLICATION_SMILE))
+                                  .andReturn();
+
+        // Assert
+        assertWalletEquals(new ObjectMapper(new SmileFactory()), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void getWalletAsCborSuccessfully() throws Exception {
+        // Arrange
+        when(walletService.getWallet(MOCK_WALLET_ID)).thenReturn(createWalletInstance());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID).accept(APPLICATION_CBOR))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                                  .andReturn();
+
+        // Assert
+        assertWalletEquals(new ObjectMapper(new CBORFactory()), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void rechargeWalletWithSmileBodySuccessfully() throws Exception {
+        // Arrange
+        Recharge recharge = new Recharge("1234567890", new BigDecimal(1000));
+        byte[] body = new ObjectMapper(new SmileFactory()).writeValueAsBytes(recharge);
+
+        // Act
+        mockMvc.perform(patch("/wallet/" + MOCK_WALLET_ID + "/recharge").contentType(APPLICATION_SMILE).content(body))
+               .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<Recharge> rechargeCaptor = ArgumentCaptor.forClass(Recharge.class);
+        verify(walletService).rechargeWallet(eq(MOCK_WALLET_ID), rechargeCaptor.capture());
+        Assertions.assertEquals(recharge.getCreditCardNumber(), rechargeCaptor.getValue().getCreditCardNumber());
+        Assertions.assertEquals(0, recharge.getAmount().compareTo(rechargeCaptor.getValue().getAmount()));
+    }
+
+    @Test
+    public void getWalletWhenServiceFailsReturnsErrorAsSmile() throws Exception {
+        // Arrange
+        when(walletService.getWallet(any())).thenThrow(new IllegalStateException("Boom"));
+
+        // Act && Assert
+        mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID).accept(APPLICATION_SMILE))
+               .andExpect(status().isInternalServerError())
+               .andExpect(content().contentTypeCompatibleWith(APPLICATION_SMILE));
+    }
+
+    @Test
+    public void getTransactionsPassesTheCursorAndTheDefaultLimit() throws Exception {
+        // Act
+        mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID + "/transactions").param("cursor", "abc"))
+               .andExpect(status().isOk());
+
+        // Assert
+        verify(walletService).getTransactions(MOCK_WALLET_ID, "abc", 50);
+    }
+
+    @Test
+    public void getTransactionSummaryParsesIsoDates() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.of(2021, 2, 1);
+        LocalDate to = LocalDate.of(2021, 2, 28);
+
+        when(walletService.getTransactionSummary(MOCK_WALLET_ID, from, to))
+                .thenReturn(new TransactionSummary(MOCK_WALLET_ID, from, to, new BigDecimal(500), BigDecimal.TEN, 3));
+
+        // Act && Assert
+        mockMvc.perform(get("/wallet/" + MOCK_WALLET_ID + "/transactions/summary").param("from", "2021-02-01")
+                                                                                   .param("to", "2021-02-28"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.from").value("2021-02-01"))
+               .andExpect(jsonPath("$.numberOfTransactions").value(3));
+    }
+
+    private void assertWalletEquals(ObjectMapper objectMapper, byte[] body) throws Exception {
+        Wallet wallet = objectMapper.readValue(body, Wallet.class);
+
+        Assertions.assertEquals(MOCK_WALLET_ID, wallet.getId());
+        Assertions.assertEquals(0, INITIAL_CURRENT_BALANCE_OF_WALLET.compareTo(wallet.getCurrentBalance()));
+    }
+
+    private Wallet createWalletInstance() {
+        Wallet wallet = new Wallet();
+        wallet.setId(MOCK_WALLET_ID);
+        wallet.setCurrentBalance(INITIAL_CURRENT_BALANCE_OF_WALLET);
+
+        return wallet;
+    }
+}
@@ -0,0 +1,79 @@
+package com.playtomic.tests.wallet.api.consistency;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ReadYourWritesFilterTest {
+    private static final long MAX_STALENESS_IN_MILLIS = 1000;
+    private static final String TOKEN_SECRET = "test-secret";
+
+    private final ReadYourWritesFilter readYourWritesFilter = new ReadYourWritesFilter(MAX_STALENESS_IN_MILLIS,
+                                                                                       TOKEN_SECRET);
+
+    @Test
+    public void recentTokenRequiresThePrimary() {
+        // Arrange
+        String token = readYourWritesFilter.createToken(System.currentTimeMillis());
+
+        // Act && Assert
+        Assertions.assertTrue(readYourWritesFilter.isPrimaryRequired(token));
+    }
+
+    @Test
+    public void tokenOfAnotherInstanceSharingTheSecretRequiresThePrimary() {
+        // Arrange
+        String token = new ReadYourWritesFilter(MAX_STALENESS_IN_MILLIS, TOKEN_SECRET)
+                .createToken(System.currentTimeMillis());
+
+        // Act && Assert
+        Assertions.assertTrue(readYourWritesFilter.isPrimaryRequired(token));
+    }
+
+    @Test
+    public void tokenOlderThanTheMaxStalenessDoesNotRequireThePrimary() {
+        // Arrange
+        String token = readYourWritesFilter.createToken(System.currentTimeMillis() - MAX_STALENESS_IN_MILLIS - 1);
+
+        // Act && Assert
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(token));
+    }
+
+    @Test
+    public void tokenOfAnInstanceWithItsClockAheadRequiresThePrimary() {
+        // Arrange
+        String token = readYourWritesFilter.createToken(System.currentTimeMillis() + MAX_STALENESS_IN_MILLIS / 2);
+
+        // Act && Assert
+        Assertions.assertTrue(readYourWritesFilter.isPrimaryRequired(token));
+    }
+
+    @Test
+    public void tokenFurtherInTheFutureThanTheMaxStalenessDoesNotRequireThePrimary() {
+        // Arrange
+        String token = readYourWritesFilter.createToken(System.currentTimeMillis() + 60000);
+
+        // Act && Assert
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(token));
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(readYourWritesFilter.createToken(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void unsignedOrForgedTokenDoesNotRequireThePrimary() {
+        // Arrange
+        String now = String.valueOf(System.currentTimeMillis());
+        String tokenOfAnotherSecret = new ReadYourWritesFilter(MAX_STALENESS_IN_MILLIS, "another-secret")
+                .createToken(System.currentTimeMillis());
+
+        // Act && Assert
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(now));
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(now + ".forged"));
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired(tokenOfAnotherSecret));
+    }
+
+    @Test
+    public void malformedTokenDoesNotRequireThePrimary() {
+        // Act && Assert
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired("not-a-time"));
+        Assertions.assertFalse(readYourWritesFilter.isPrimaryRequired("not-a-time.signature"));
+    }
+}
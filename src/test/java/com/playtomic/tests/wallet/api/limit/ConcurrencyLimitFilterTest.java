@@ -0,0 +1,137 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.Arrays;
+
+public class ConcurrencyLimitFilterTest {
+    private final ConcurrencyLimiter readLimiter = createLimiter();
+    private final ConcurrencyLimiter writeLimiter = createLimiter();
+    private final ConcurrencyLimitFilter concurrencyLimitFilter =
+            new ConcurrencyLimitFilter(readLimiter, writeLimiter, 1,
+                                       Arrays.asList(new MappingJackson2HttpMessageConverter(),
+                                                     new MappingJackson2SmileHttpMessageConverter()));
+
+    @Test
+    public void requestUnderTheLimitGoesThroughAndReleasesItsPermit() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wallet/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        concurrencyLimitFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        Assertions.assertSame(request, filterChain.getRequest());
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals(0, readLimiter.getNumberOfRequestsInFlight());
+    }
+
+    @Test
+    public void requestOverTheLimitIsRejectedWithRetryAfter() throws Exception {
+        // Arrange
+        readLimiter.tryAcquire();
+        readLimiter.tryAcquire();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wallet/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        concurrencyLimitFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        Assertions.assertNull(filterChain.getRequest());
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+        Assertions.assertEquals("application/json", response.getContentType());
+        Assertions.assertTrue(response.getContentAsString().contains("TechnicalError"));
+        Assertions.assertEquals(1, readLimiter.getNumberOfRejections());
+    }
+
+    @Test
+    public void rejectionIsWrittenInTheFormatTheClientAccepts() throws Exception {
+        // Arrange
+        readLimiter.tryAcquire();
+        readLimiter.tryAcquire();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wallet/1");
+        request.addHeader("Accept", "application/x-jackson-smile");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        concurrencyLimitFilter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("application/x-jackson-smile", response.getContentType());
+        Assertions.assertTrue(response.getContentAsByteArray().length > 0);
+        Assertions.assertFalse(response.getContentAsString().startsWith("{"));
+    }
+
+    @Test
+    public void rejectionHasNoBodyWhenNoFormatTheClientAcceptsIsAvailable() throws Exception {
+        // Arrange
+        readLimiter.tryAcquire();
+        readLimiter.tryAcquire();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wallet/1");
+        request.addHeader("Accept", "text/csv");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        concurrencyLimitFilter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+        Assertions.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void writesAreLimitedSeparatelyFromReads() throws Exception {
+        // Arrange
+        readLimiter.tryAcquire();
+        readLimiter.tryAcquire();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/wallet/1/subtract/10");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        concurrencyLimitFilter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals(0, writeLimiter.getNumberOfRejections());
+    }
+
+    @Test
+    public void permitIsReleasedWhenTheRequestFails() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/wallet/1/subtract/10");
+        FilterChain failingFilterChain = (servletRequest, servletResponse) -> {
+            throw new IllegalStateException("Request failed");
+        };
+
+        // Act
+        Assertions.assertThrows(IllegalStateException.class, () -> concurrencyLimitFilter.doFilter(
+                request, new MockHttpServletResponse(), failingFilterChain));
+
+        // Assert
+        Assertions.assertEquals(0, writeLimiter.getNumberOfRequestsInFlight());
+    }
+
+    private ConcurrencyLimiter createLimiter() {
+        return new ConcurrencyLimiter(new GradientConcurrencyLimit(
+                2, 2, 2, 1.5, Duration.ofMillis(100), Duration.ofSeconds(60), 10, System.nanoTime()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.playtomic.tests.wallet.api.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class GradientConcurrencyLimitTest {
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 2;
+    private static final int MAX_LIMIT = 100;
+    private static final int MIN_RTT_SAMPLES = 10;
+    private static final long MIN_RTT = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SAMPLE_WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private long now;
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(
+            INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, 1.5, Duration.ofNanos(SAMPLE_WINDOW), Duration.ofSeconds(60),
+            MIN_RTT_SAMPLES, now);
+
+    @Test
+    public void limitIsPinnedToTheMinimumUntilTheLatencyWithoutLoadIsMeasured() {
+        // Arrange
+        Assertions.assertEquals(MIN_LIMIT, limit.getLimit());
+
+        // Act
+        measureMinRtt();
+
+        // Assert
+        Assertions.assertFalse(limit.isMeasuringMinRtt());
+        Assertions.assertEquals(INITIAL_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void limitGrowsUpToTheMaximumWhileLatencyStaysAsWithoutLoad() {
+        // Arrange
+        measureMinRtt();
+
+        // Act
+        runWindows(10, MIN_RTT);
+
+        // Assert
+        Assertions.assertEquals(MAX_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void limitShrinksWhenRequestsStartQueueing() {
+        // Arrange
+        measureMinRtt();
+
+        // Act
+        runWindows(10, MIN_RTT * 10);
+
+        // Assert
+        // Halving plus the square root headroom settles around 4
+        Assertions.assertTrue(limit.getLimit() <= 5);
+    }
+
+    @Test
+    public void limitSettlesWhenLatencyIsWithinTheTolerance() {
+        // Arrange
+        measureMinRtt();
+
+        // Act
+        runWindows(1, MIN_RTT * 3 / 2);
+
+        // Assert
+        Assertions.assertTrue(limit.getLimit() > INITIAL_LIMIT);
+        Assertions.assertTrue(limit.getLimit() <= INITIAL_LIMIT + Math.sqrt(INITIAL_LIMIT) + 1);
+    }
+
+    @Test
+    public void latencyWithoutLoadIsMeasuredAgainAfterTheInterval() {
+        // Arrange
+        measureMinRtt();
+
+        // Act
+        now += TimeUnit.SECONDS.toNanos(61);
+        limit.onSample(now, now + MIN_RTT);
+
+        // Assert
+        Assertions.assertTrue(limit.isMeasuringMinRtt());
+        Assertions.assertEquals(MIN_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void requestsAdmittedBeforeTheMeasurementAreIgnoredByIt() {
+        // Arrange
+        long startTimeBeforeMeasurement = now - 1;
+
+        // Act
+        for (int i = 0; i < MIN_RTT_SAMPLES; i++) {
+            now += MIN_RTT;
+            limit.onSample(startTimeBeforeMeasurement, now);
+        }
+
+        // Assert
+        Assertions.assertTrue(limit.isMeasuringMinRtt());
+    }
+
+    private void measureMinRtt() {
+        for (int i = 0; i < MIN_RTT_SAMPLES; i++) {
+            limit.onSample(now, now + MIN_RTT);
+            now += MIN_RTT;
+        }
+    }
+
+    private void runWindows(int numberOfWindows, long rtt) {
+        for (int i = 0; i < numberOfWindows; i++) {
+            long windowEndTime = now + SAMPLE_WINDOW;
+
+            while (now < windowEndTime) {
+                limit.onSample(now, now + rtt);
+                now += rtt;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.playtomic.tests.wallet.api.management;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ManagementTokenFilterTest {
+    private static final String TOKEN = "test-token";
+
+    private final ManagementTokenFilter managementTokenFilter = new ManagementTokenFilter(TOKEN);
+
+    @Test
+    public void requestWithTheTokenIsLetThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/hotwallets");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        managementTokenFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertSame(request, filterChain.getRequest());
+    }
+
+    @Test
+    public void requestWithoutTheTokenIsRefused() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/hotwallets");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        managementTokenFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        Assertions.assertEquals(401, response.getStatus());
+        Assertions.assertEquals("Bearer", response.getHeader("WWW-Authenticate"));
+        Assertions.assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    public void wrongTokenIsRefused() {
+        // Act && Assert
+        Assertions.assertFalse(managementTokenFilter.isAuthorized("Bearer another-token"));
+        Assertions.assertFalse(managementTokenFilter.isAuthorized("Bearer "));
+        Assertions.assertFalse(managementTokenFilter.isAuthorized(TOKEN));
+    }
+
+    @Test
+    public void everyTokenIsRefusedWhenNoneIsConfigured() {
+        // Arrange
+        ManagementTokenFilter filterWithoutToken = new ManagementTokenFilter("");
+
+        // Act && Assert
+        Assertions.assertFalse(filterWithoutToken.isAuthorized("Bearer "));
+        Assertions.assertFalse(filterWithoutToken.isAuthorized("Bearer " + TOKEN));
+    }
+}
@@ -0,0 +1,112 @@
+package com.playtomic.tests.wallet.benchmark;
+
+import com.playtomic.tests.wallet.WalletApplication;
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.service.WalletService;
+import com.playtomic.tests.wallet.service.hotkey.HotWalletTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of tracking hot wallets, on its own ({@link #record()}) and on the service hot path ({@link #getWallet()} and
+ * {@link #chargeWallet()}), with the tracker enabled and disabled and, when enabled, recording one request in
+ * sampleRate.
+ *
+ * With the "skewed" distribution 30% of the requests go to 10 wallets, so they also measure the contention of the
+ * threads updating the same cells of the sketch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class HotWalletTrackerBenchmark {
+    private static final int NUMBER_OF_WALLETS = 10000;
+    private static final int NUMBER_OF_HOT_WALLETS = 10;
+
+    @Param({"false", "true"})
+    private boolean tracking;
+
+    @Param({"1", "16"})
+    private int sampleRate;
+
+    @Param({"uniform", "skewed"})
+    private String distribution;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private HotWalletTracker hotWalletTracker;
+    private String[] walletIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(WalletApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                     "--spring.datasource.url=jdbc:h2:mem:benchmark-hot-wallets;DB_CLOSE_ON_EXIT=FALSE",
+                     "--wallet.index.enabled=false",
+                     "--wallet.outbox.relay.enabled=false",
+                     "--wallet.hot-wallets.enabled=" + tracking,
+                     "--wallet.hot-wallets.sample-rate=" + sampleRate,
+                     "--logging.level.root=WARN");
+        walletService = context.getBean(WalletService.class);
+        hotWalletTracker = context.getBean(HotWalletTracker.class);
+
+        walletIds = new String[NUMBER_OF_WALLETS];
+        for (int i = 0; i < NUMBER_OF_WALLETS; i++) {
+            Wallet wallet = new Wallet();
+            wallet.setCurrentBalance(new BigDecimal(1000000000));
+            walletIds[i] = walletService.createWallet(wallet).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void record() {
+        hotWalletTracker.record(randomWalletId(), 1000);
+    }
+
+    @Benchmark
+    public Wallet getWallet() {
+        return walletService.getWallet(randomWalletId());
+    }
+
+    @Benchmark
+    public void chargeWallet() {
+        walletService.chargeWallet(randomWalletId(), BigDecimal.ONE);
+    }
+
+    private String randomWalletId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if ("skewed".equals(distribution) && random.nextInt(100) < 30) {
+            return walletIds[random.nextInt(NUMBER_OF_HOT_WALLETS)];
+        }
+
+        return walletIds[random.nextInt(NUMBER_OF_WALLETS)];
+    }
+}
@@ -0,0 +1,92 @@
+package com.playtomic.tests.wallet.benchmark;
+
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.repository.sharding.Shard;
+import com.playtomic.tests.wallet.repository.sharding.ShardProperties;
+import com.playtomic.tests.wallet.repository.sharding.ShardedWalletRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the wallet hot path (find, then find and save) against the number of shards, each one an in-memory
+ * H2 database with its own connection pool.
+ *
+ * All the shards share the CPU of this machine, so the gain measured here comes from spreading the connections and
+ * the locks of the databases, not from adding hardware.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ShardedWalletRepositoryBenchmark {
+    private static final int NUMBER_OF_WALLETS = 10000;
+
+    @Param({"1", "2", "4", "8"})
+    private int numberOfShards;
+
+    private ShardedWalletRepository walletRepository;
+    private String[] walletIds;
+
+    @Setup
+    public void setUp() {
+        List<Shard> shards = new ArrayList<>();
+
+        for (int i = 0; i < numberOfShards; i++) {
+            String name = "benchmark-" + numberOfShards + "-shard-" + i;
+            shards.add(Shard.open(new ShardProperties(name, "jdbc:h2:mem:" + name + ";DB_CLOSE_ON_EXIT=FALSE",
+                                                      "sa", "")));
+        }
+
+        walletRepository = new ShardedWalletRepository(shards, 128);
+
+        walletIds = new String[NUMBER_OF_WALLETS];
+        for (int i = 0; i < NUMBER_OF_WALLETS; i++) {
+            Wallet wallet = new Wallet();
+            wallet.setCurrentBalance(new BigDecimal(1000));
+            wallet.setHeldBalance(BigDecimal.ZERO);
+            walletIds[i] = walletRepository.save(wallet).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        walletRepository.close();
+    }
+
+    @Benchmark
+    public Wallet findById() {
+        return walletRepository.findById(randomWalletId()).get();
+    }
+
+    @Benchmark
+    public Wallet findByIdAndSave() {
+        Wallet wallet = walletRepository.findById(randomWalletId()).get();
+        wallet.addAmountToCurrentBalance(BigDecimal.ONE);
+
+        return walletRepository.save(wallet);
+    }
+
+    private String randomWalletId() {
+        return walletIds[ThreadLocalRandom.current().nextInt(NUMBER_OF_WALLETS)];
+    }
+}
@@ -0,0 +1,100 @@
+package com.playtomic.tests.wallet.benchmark;
+
+import com.playtomic.tests.wallet.WalletApplication;
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.repository.WalletRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the wallet hot path (find, then find and save, then find and update the balance only if it is unchanged)
+ * on the JPA and the plain JDBC {@link WalletRepository}.
+ *
+ * With 4 threads on 1000 wallets a few conditional updates find the balance changed and update nothing, as they would
+ * in the service; they are counted like the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class WalletRepositoryBenchmark {
+    private static final int NUMBER_OF_WALLETS = 1000;
+
+    @Param({"jpa", "jdbc"})
+    private String persistence;
+
+    private ConfigurableApplicationContext context;
+    private WalletRepository walletRepository;
+    private String[] walletIds;
+
+    @Setup
+    public void setUp() {
+        String profiles = "jdbc".equals(persistence) ? "test,jdbc" : "test";
+
+        context = new SpringApplicationBuilder(WalletApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=" + profiles,
+                     "--spring.datasource.url=jdbc:h2:mem:benchmark-" + persistence + ";DB_CLOSE_ON_EXIT=FALSE",
+                     "--wallet.index.enabled=false",
+                     "--logging.level.root=WARN");
+        walletRepository = context.getBean(WalletRepository.class);
+
+        walletIds = new String[NUMBER_OF_WALLETS];
+        for (int i = 0; i < NUMBER_OF_WALLETS; i++) {
+            Wallet wallet = new Wallet();
+            wallet.setCurrentBalance(new BigDecimal(1000));
+            walletIds[i] = walletRepository.save(wallet).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Wallet findById() {
+        return walletRepository.findById(randomWalletId()).get();
+    }
+
+    @Benchmark
+    public Wallet findByIdAndSave() {
+        Wallet wallet = walletRepository.findById(randomWalletId()).get();
+        wallet.addAmountToCurrentBalance(BigDecimal.ONE);
+
+        return walletRepository.save(wallet);
+    }
+
+    @Benchmark
+    public int findByIdAndUpdateCurrentBalance() {
+        Wallet wallet = walletRepository.findById(randomWalletId()).get();
+
+        return walletRepository.updateCurrentBalance(wallet.getId(), wallet.getCurrentBalance(),
+                                                     wallet.getCurrentBalance().add(BigDecimal.ONE));
+    }
+
+    private String randomWalletId() {
+        return walletIds[ThreadLocalRandom.current().nextInt(NUMBER_OF_WALLETS)];
+    }
+}
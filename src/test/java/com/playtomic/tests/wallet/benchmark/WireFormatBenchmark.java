@@ -0,0 +1,98 @@
+package com.playtomic.tests.wallet.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.error.BusinessError;
+import com.playtomic.tests.wallet.error.RestError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the API payloads for each wire format supported by the controller.
+ *
+ * The bytes per response of each payload are logged once per trial, next to the JMH timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private final Logger log = LoggerFactory.getLogger(WireFormatBenchmark.class);
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Wallet wallet;
+    private RestError error;
+    private byte[] serializedWallet;
+    private byte[] serializedRecharge;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = createObjectMapper(format);
+
+        wallet = new Wallet();
+        wallet.setId("e7c08fea-447b-4744-bbda-a81b6944bd74");
+        wallet.setCurrentBalance(new BigDecimal("1234.56"));
+        error = new BusinessError("Wallet with id e7c08fea-447b-4744-bbda-a81b6944bd74 does not exist.",
+                                  "e7c08fea-447b-4744-bbda-a81b6944bd74");
+
+        serializedWallet = objectMapper.writeValueAsBytes(wallet);
+        serializedRecharge = objectMapper.writeValueAsBytes(new Recharge("4242 4242 4242 4242", new BigDecimal(15)));
+
+        log.info("format=" + format + " wallet=" + serializedWallet.length + "B recharge="
+                 + serializedRecharge.length + "B error=" + objectMapper.writeValueAsBytes(error).length + "B");
+    }
+
+    @Benchmark
+    public byte[] serializeWallet() throws Exception {
+        return objectMapper.writeValueAsBytes(wallet);
+    }
+
+    @Benchmark
+    public byte[] serializeError() throws Exception {
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public Wallet deserializeWallet() throws Exception {
+        return objectMapper.readValue(serializedWallet, Wallet.class);
+    }
+
+    @Benchmark
+    public Recharge deserializeRecharge() throws Exception {
+        return objectMapper.readValue(serializedRecharge, Recharge.class);
+    }
+
+    private static ObjectMapper createObjectMapper(String format) {
+        switch (format) {
+            case "smile":
+                return new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build();
+            case "cbor":
+                return new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.playtomic.tests.wallet.load;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact latency recording for a single thread. Recorders of all the workers are merged once the run is over.
+ */
+public class LatencyRecorder {
+    private long[] latenciesInNanos = new long[1 << 16];
+    private int size;
+
+    public void record(long latencyInNanos) {
+        if (size == latenciesInNanos.length) {
+            latenciesInNanos = Arrays.copyOf(latenciesInNanos, size * 2);
+        }
+
+        latenciesInNanos[size++] = latencyInNanos;
+    }
+
+    public static long[] mergeSorted(List<LatencyRecorder> recorders) {
+        int totalSize = recorders.stream().mapToInt(recorder -> recorder.size).sum();
+        long[] merged = new long[totalSize];
+
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.latenciesInNanos, 0, merged, offset, recorder.size);
+            offset += recorder.size;
+        }
+
+        Arrays.sort(merged);
+
+        return merged;
+    }
+
+    public static long percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+}
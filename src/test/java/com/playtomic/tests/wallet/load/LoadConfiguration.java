@@ -0,0 +1,57 @@
+package com.playtomic.tests.wallet.load;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load test run. Every value can be overridden with a system property, for example
+ * {@code -Dwallet.load.threads=64 -Dwallet.load.mix=0:50:25:25}.
+ */
+@Setter
+@Getter
+public class LoadConfiguration {
+    private int threads;
+    private Duration duration;
+    private Duration latencyObjective;
+    private int numberOfWallets;
+    private long initialBalance;
+    private double zipfExponent;
+    private int createWeight;
+    private int getWeight;
+    private int rechargeWeight;
+    private int chargeWeight;
+
+    public static LoadConfiguration fromSystemProperties() {
+        LoadConfiguration configuration = new LoadConfiguration();
+        configuration.setThreads(Integer.getInteger("wallet.load.threads", 16));
+        configuration.setDuration(Duration.ofSeconds(Long.getLong("wallet.load.duration-seconds", 10)));
+        configuration.setLatencyObjective(
+                Duration.ofMillis(Long.getLong("wallet.load.latency-objective-ms", 100)));
+        configuration.setNumberOfWallets(Integer.getInteger("wallet.load.wallets", 1000));
+        configuration.setInitialBalance(Long.getLong("wallet.load.initial-balance", 1000));
+        configuration.setZipfExponent(Double.parseDouble(System.getProperty("wallet.load.zipf-exponent", "1.1")));
+
+        // create:get:recharge:charge
+        String[] mix = System.getProperty("wallet.load.mix", "1:60:15:24").split(":");
+        configuration.setCreateWeight(Integer.parseInt(mix[0]));
+        configuration.setGetWeight(Integer.parseInt(mix[1]));
+        configuration.setRechargeWeight(Integer.parseInt(mix[2]));
+        configuration.setChargeWeight(Integer.parseInt(mix[3]));
+
+        return configuration;
+    }
+
+    public int getTotalWeight() {
+        return createWeight + getWeight + rechargeWeight + chargeWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "threads=" + threads + ", duration=" + duration + ", latencyObjective=" + latencyObjective
+               + ", wallets=" + numberOfWallets + ", zipfExponent="
+               + zipfExponent + ", mix(create:get:recharge:charge)=" + createWeight + ":" + getWeight + ":"
+               + rechargeWeight + ":" + chargeWeight;
+    }
+}
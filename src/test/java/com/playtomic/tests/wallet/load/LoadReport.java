@@ -0,0 +1,48 @@
+package com.playtomic.tests.wallet.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a load test run. Latencies cover every answered request except the ones shed with a 503. Good
+ * responses are the successful ones answered within the latency objective.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadReport {
+    private final Duration elapsed;
+    private final long numberOfRequests;
+    private final long numberOfErrors;
+    private final long numberOfGoodResponses;
+    private final Map<Integer, Long> numberOfResponsesByStatus;
+    private final long[] sortedLatenciesInNanos;
+
+    public double getThroughput() {
+        return numberOfRequests / (elapsed.toNanos() / 1e9);
+    }
+
+    public double getGoodput() {
+        return numberOfGoodResponses / (elapsed.toNanos() / 1e9);
+    }
+
+    public long getNumberOfResponses(int status) {
+        return numberOfResponsesByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getLatencyPercentileInMicros(double percentile) {
+        return TimeUnit.NANOSECONDS.toMicros(LatencyRecorder.percentile(sortedLatenciesInNanos, percentile));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d, throughput=%.1f req/s, goodput=%.1f req/s, p50=%d us, p99=%d us, p999=%d us, errors=%d, "
+                             + "responses by status=%s",
+                             numberOfRequests, getThroughput(), getGoodput(), getLatencyPercentileInMicros(50),
+                             getLatencyPercentileInMicros(99), getLatencyPercentileInMicros(99.9), numberOfErrors,
+                             numberOfResponsesByStatus);
+    }
+}
@@ -0,0 +1,218 @@
+package com.playtomic.tests.wallet.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the wallet API.
+ *
+ * Each worker thread sends a request, waits for the answer and sends the next one, picking the operation from the
+ * configured mix and the wallet from a Zipf distribution over the wallets created before the run. The expected
+ * balance of every wallet is tracked from the answers so that {@link #verifyBalances()} can detect lost or negative
+ * balances afterwards.
+ */
+public class WalletLoadGenerator {
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final String baseUrl;
+    private final LoadConfiguration configuration;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> walletIds = new ArrayList<>();
+    private final Map<String, AtomicLong> expectedBalances = new ConcurrentHashMap<>();
+    private final Set<String> walletsWithUncertainBalance = ConcurrentHashMap.newKeySet();
+
+    private final Map<Integer, LongAdder> responsesByStatus = new ConcurrentHashMap<>();
+    private final LongAdder numberOfErrors = new LongAdder();
+    private final LongAdder numberOfGoodResponses = new LongAdder();
+    private final List<LatencyRecorder> latencyRecorders = new CopyOnWriteArrayList<>();
+
+    public WalletLoadGenerator(String baseUrl, LoadConfiguration configuration) {
+        this.baseUrl = baseUrl;
+        this.configuration = configuration;
+        this.httpClient = HttpClient.newBuilder()
+                                    .version(HttpClient.Version.HTTP_1_1)
+                                    .connectTimeout(Duration.ofSeconds(5))
+                                    .build();
+    }
+
+    public void createWallets() throws IOException, InterruptedException {
+        for (int i = 0; i < configuration.getNumberOfWallets(); i++) {
+            String walletId = createWallet();
+
+            if (walletId == null) {
+                throw new IllegalStateException("Could not create the wallets used by the load test");
+            }
+
+            walletIds.add(walletId);
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ZipfianGenerator zipfianGenerator = new ZipfianGenerator(walletIds.size(), configuration.getZipfExponent());
+        ExecutorService executorService = Executors.newFixedThreadPool(configuration.getThreads());
+        long startTime = System.nanoTime();
+        long deadline = startTime + configuration.getDuration().toNanos();
+
+        for (int i = 0; i < configuration.getThreads(); i++) {
+            executorService.submit(() -> {
+                LatencyRecorder latencyRecorder = new LatencyRecorder();
+                latencyRecorders.add(latencyRecorder);
+
+                while (System.nanoTime() < deadline) {
+                    sendRandomRequest(walletIds.get(zipfianGenerator.next()), latencyRecorder);
+                }
+            });
+        }
+
+        executorService.shutdown();
+        executorService.awaitTermination(configuration.getDuration().toMillis() + 60000, TimeUnit.MILLISECONDS);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        Map<Integer, Long> numberOfResponsesByStatus = new TreeMap<>();
+        responsesByStatus.forEach((status, count) -> numberOfResponsesByStatus.put(status, count.sum()));
+        long numberOfRequests = numberOfResponsesByStatus.values().stream().mapToLong(Long::longValue).sum()
+                                + numberOfErrors.sum();
+
+        return new LoadReport(elapsed, numberOfRequests, numberOfErrors.sum(), numberOfGoodResponses.sum(),
+                              numberOfResponsesByStatus, LatencyRecorder.mergeSorted(latencyRecorders));
+    }
+
+    /**
+     * Reads every wallet back and compares it with the balance expected from the answers received.
+     *
+     * @return one message per wallet whose balance is negative or different from the expected one
+     */
+    public List<String> verifyBalances() throws IOException, InterruptedException {
+        List<String> violations = new ArrayList<>();
+
+        for (Map.Entry<String, AtomicLong> expectedBalance : expectedBalances.entrySet()) {
+            String walletId = expectedBalance.getKey();
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/wallet/" + walletId))
+                                                            .GET());
+            BigDecimal currentBalance =
+                    objectMapper.readTree(response.body()).get("currentBalance").decimalValue();
+
+            if (currentBalance.signum() < 0) {
+                violations.add("Wallet " + walletId + " has a negative balance of " + currentBalance);
+            }
+
+            if (!walletsWithUncertainBalance.contains(walletId)
+                && currentBalance.compareTo(BigDecimal.valueOf(expectedBalance.getValue().get())) != 0) {
+                violations.add("Wallet " + walletId + " has a balance of " + currentBalance + " instead of "
+                               + expectedBalance.getValue().get());
+            }
+        }
+
+        return violations;
+    }
+
+    private void sendRandomRequest(String walletId, LatencyRecorder latencyRecorder) {
+        int operation = ThreadLocalRandom.current().nextInt(configuration.getTotalWeight());
+        long startTime = System.nanoTime();
+
+        try {
+            HttpResponse<String> response;
+
+            if ((operation -= configuration.getCreateWeight()) < 0) {
+                response = send(createWalletRequest());
+                if (response.statusCode() == 201) {
+                    trackCreatedWallet(response);
+                }
+            } else if ((operation -= configuration.getGetWeight()) < 0) {
+                response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/wallet/" + walletId)).GET());
+            } else if ((operation -= configuration.getRechargeWeight()) < 0) {
+                long amount = ThreadLocalRandom.current().nextLong(10, 50);
+                response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/wallet/" + walletId + "/recharge"))
+                                           .header("Content-Type", "application/json")
+                                           .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                                   "{\"creditCardNumber\":\"4242 4242 4242 4242\",\"amount\":"
+                                                   + amount + "}")));
+                trackBalanceChange(walletId, response, amount);
+            } else {
+                long amount = ThreadLocalRandom.current().nextLong(1, 100);
+                response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/wallet/" + walletId + "/subtract/"
+                                                                  + amount))
+                                           .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                trackBalanceChange(walletId, response, -amount);
+            }
+
+            responsesByStatus.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+
+            long latencyInNanos = System.nanoTime() - startTime;
+
+            if (response.statusCode() != SERVICE_UNAVAILABLE) {
+                latencyRecorder.record(latencyInNanos);
+            }
+
+            if (response.statusCode() / 100 == 2 && latencyInNanos <= configuration.getLatencyObjective().toNanos()) {
+                numberOfGoodResponses.increment();
+            }
+        } catch (IOException | InterruptedException exception) {
+            numberOfErrors.increment();
+            walletsWithUncertainBalance.add(walletId);
+        }
+    }
+
+    private void trackBalanceChange(String walletId, HttpResponse<String> response, long amount) {
+        if (response.statusCode() == 200) {
+            expectedBalances.get(walletId).addAndGet(amount);
+        } else if (response.statusCode() != SERVICE_UNAVAILABLE && response.body() != null
+                   && response.body().contains("TechnicalError")) {
+            // The request failed for an unknown reason, it may or may not have changed the balance
+            walletsWithUncertainBalance.add(walletId);
+        }
+    }
+
+    private void trackCreatedWallet(HttpResponse<String> response) throws IOException {
+        JsonNode wallet = objectMapper.readTree(response.body());
+
+        expectedBalances.put(wallet.get("id").asText(),
+                             new AtomicLong(wallet.get("currentBalance").decimalValue().longValue()));
+    }
+
+    private String createWallet() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(createWalletRequest());
+
+        if (response.statusCode() != 201) {
+            return null;
+        }
+
+        trackCreatedWallet(response);
+
+        return objectMapper.readTree(response.body()).get("id").asText();
+    }
+
+    private HttpRequest.Builder createWalletRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/wallet"))
+                          .header("Content-Type", "application/json")
+                          .POST(HttpRequest.BodyPublishers.ofString(
+                                  "{\"currentBalance\":" + configuration.getInitialBalance() + "}"));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,63 @@
+package com.playtomic.tests.wallet.load;
+
+import com.playtomic.tests.wallet.service.stripe.StripeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Drives the real controller, service and repository on an embedded server and H2, with a Stripe service that
+ * accepts every charge, and checks afterwards that no balance was lost or went negative.
+ *
+ * The shape of the load is configured with the system properties read by {@link LoadConfiguration}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles(profiles = "test")
+public class WalletLoadIT {
+    private final Logger log = LoggerFactory.getLogger(WalletLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void mixedLoadKeepsEveryBalanceConsistent() throws Exception {
+        // Arrange
+        LoadConfiguration configuration = LoadConfiguration.fromSystemProperties();
+        WalletLoadGenerator walletLoadGenerator = new WalletLoadGenerator("http://localhost:" + port, configuration);
+        walletLoadGenerator.createWallets();
+
+        // Act
+        LoadReport loadReport = walletLoadGenerator.run();
+        log.info("Load test (" + configuration + "): " + loadReport);
+
+        // Assert
+        List<String> violations = walletLoadGenerator.verifyBalances();
+        Assertions.assertTrue(violations.isEmpty(), String.join("\n", violations));
+        Assertions.assertEquals(0, loadReport.getNumberOfErrors());
+        Assertions.assertTrue(loadReport.getNumberOfResponses(200) > 0);
+    }
+
+    @TestConfiguration
+    static class FakeStripeServiceConfiguration {
+        @Bean
+        @Primary
+        public StripeService fakeStripeService() {
+            return new StripeService() {
+                @Override
+                public void charge(String creditCardNumber, BigDecimal amount) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.playtomic.tests.wallet.load;
+
+import com.playtomic.tests.wallet.service.stripe.StripeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drives the API with more and more concurrent clients, far past the point where the wallet lock is saturated, and
+ * checks that the goodput (successful answers within the latency objective) stays flat thanks to the concurrency
+ * limiter instead of collapsing as every request waits longer.
+ *
+ * Recharges call a Stripe service that takes a couple of millis while holding the wallet lock, which is what makes
+ * writes saturate. Running with -Dwallet.limit.enabled=false shows the collapse, and makes this test fail.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.datasource.url=jdbc:h2:mem:overload;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles(profiles = "test")
+public class WalletOverloadIT {
+    private static final long STRIPE_LATENCY_IN_MILLIS = 2;
+
+    private final Logger log = LoggerFactory.getLogger(WalletOverloadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void goodputStaysFlatUnderOverload() throws Exception {
+        // Arrange
+        int[] levelsOfConcurrency = Arrays.stream(System.getProperty("wallet.overload.threads", "8,32,128").split(","))
+                                          .mapToInt(Integer::parseInt)
+                                          .toArray();
+        List<LoadReport> loadReports = new ArrayList<>();
+
+        // Act
+        for (int threads : levelsOfConcurrency) {
+            LoadConfiguration configuration = LoadConfiguration.fromSystemProperties();
+            configuration.setThreads(threads);
+            configuration.setNumberOfWallets(100);
+            configuration.setCreateWeight(0);
+            configuration.setGetWeight(40);
+            configuration.setRechargeWeight(30);
+            configuration.setChargeWeight(30);
+
+            WalletLoadGenerator walletLoadGenerator =
+                    new WalletLoadGenerator("http://localhost:" + port, configuration);
+            walletLoadGenerator.createWallets();
+
+            LoadReport loadReport = walletLoadGenerator.run();
+            log.info("Overload test (" + configuration + "): " + loadReport);
+
+            Assertions.assertTrue(walletLoadGenerator.verifyBalances().isEmpty());
+            loadReports.add(loadReport);
+        }
+
+        // Assert
+        LoadReport mostLoadedReport = loadReports.get(loadReports.size() - 1);
+        double bestGoodput = loadReports.stream().mapToDouble(LoadReport::getGoodput).max().orElse(0);
+
+        Assertions.assertTrue(mostLoadedReport.getGoodput() >= 0.7 * bestGoodput,
+                              "Goodput fell from " + bestGoodput + " to " + mostLoadedReport.getGoodput());
+        Assertions.assertTrue(mostLoadedReport.getNumberOfResponses(503) > 0);
+        Assertions.assertEquals(0, mostLoadedReport.getNumberOfErrors());
+    }
+
+    @TestConfiguration
+    static class SlowStripeServiceConfiguration {
+        @Bean
+        @Primary
+        public StripeService slowStripeService() {
+            return new StripeService() {
+                @Override
+                public void charge(String creditCardNumber, BigDecimal amount) {
+                    try {
+                        Thread.sleep(STRIPE_LATENCY_IN_MILLIS);
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+        }
+    }
+}
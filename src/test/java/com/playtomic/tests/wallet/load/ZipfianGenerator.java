@@ -0,0 +1,32 @@
+package com.playtomic.tests.wallet.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws ranks in [0, numberOfItems) following a Zipf distribution: rank k is picked with a probability proportional
+ * to 1 / (k + 1)^exponent, so a few items receive most of the traffic.
+ */
+public class ZipfianGenerator {
+    private final double[] cumulativeProbabilities;
+
+    public ZipfianGenerator(int numberOfItems, double exponent) {
+        cumulativeProbabilities = new double[numberOfItems];
+
+        double sum = 0;
+        for (int rank = 0; rank < numberOfItems; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = sum;
+        }
+
+        for (int rank = 0; rank < numberOfItems; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    public int next() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, ThreadLocalRandom.current().nextDouble());
+
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+    }
+}
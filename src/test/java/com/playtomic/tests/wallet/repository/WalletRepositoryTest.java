@@ -91,6 +91,39 @@ public class WalletRepositoryTest {
         Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.subtract(rechargeAmount), wallet.get().getCurrentBalance());
     }
 
+    @Test
+    public void updateCurrentBalanceWhenBalanceIsUnchangedSuccessfully() {
+        // Arrange
+        Wallet walletToBeCreated = createWalletInstance();
+        saveWalletInRepository(walletToBeCreated);
+        String walletId = getWalletFromRepository().getId();
+        BigDecimal newCurrentBalance = new BigDecimal(1500);
+
+        // Act
+        int numberOfWalletsUpdated =
+                walletRepository.updateCurrentBalance(walletId, INITIAL_CURRENT_BALANCE_OF_WALLET, newCurrentBalance);
+
+        // Assert
+        Assertions.assertEquals(1, numberOfWalletsUpdated);
+        Assertions.assertEquals(0, newCurrentBalance.compareTo(walletRepository.findById(walletId).get().getCurrentBalance()));
+    }
+
+    @Test
+    public void updateCurrentBalanceWhenBalanceChangedMeanwhileFails() {
+        // Arrange
+        Wallet walletToBeCreated = createWalletInstance();
+        saveWalletInRepository(walletToBeCreated);
+        String walletId = getWalletFromRepository().getId();
+
+        // Act
+        int numberOfWalletsUpdated =
+                walletRepository.updateCurrentBalance(walletId, new BigDecimal(1), new BigDecimal(1500));
+
+        // Assert
+        Assertions.assertEquals(0, numberOfWalletsUpdated);
+        Assertions.assertEquals(0, INITIAL_CURRENT_BALANCE_OF_WALLET.compareTo(walletRepository.findById(walletId).get().getCurrentBalance()));
+    }
+
     private Wallet createWalletInstance() {
         BigDecimal currentBalance = INITIAL_CURRENT_BALANCE_OF_WALLET;
         Wallet wallet = new Wallet();
@@ -0,0 +1,87 @@
+package com.playtomic.tests.wallet.repository;
+
+import com.playtomic.tests.wallet.dto.WalletDailyRollup;
+import com.playtomic.tests.wallet.dto.WalletTransaction;
+import com.playtomic.tests.wallet.dto.WalletTransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class WalletTransactionRepositoryTest {
+    private static final String MOCK_WALLET_ID = "e7c08fea-447b-4744-bbda-a81b6944bd74";
+    private static final String OTHER_WALLET_ID = "33af95ee-3de4-4d1f-b0f6-f71cc568665e";
+
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+    @Autowired
+    private WalletDailyRollupRepository walletDailyRollupRepository;
+
+    @Test
+    public void pagesFollowingTheLastTransactionReturnTheWholeHistoryNewestFirstOnce() {
+        // Arrange
+        Instant createdAt = Instant.parse("2021-02-01T10:15:30.123456Z");
+        List<Long> expectedIds = new ArrayList<>();
+
+        for (int i = 0; i < 7; i++) {
+            // Pairs of transactions share their creation time, so the id has to break the tie
+            expectedIds.add(0, saveTransaction(MOCK_WALLET_ID, createdAt.plusSeconds(i / 2)).getId());
+            saveTransaction(OTHER_WALLET_ID, createdAt.plusSeconds(i / 2));
+        }
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        List<WalletTransaction> page =
+                walletTransactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(MOCK_WALLET_ID,
+                                                                                     PageRequest.of(0, 3));
+
+        while (!page.isEmpty()) {
+            ids.addAll(page.stream().map(WalletTransaction::getId).collect(Collectors.toList()));
+
+            WalletTransaction last = page.get(page.size() - 1);
+            page = walletTransactionRepository.findPageAfter(MOCK_WALLET_ID, last.getCreatedAt(), last.getId(),
+                                                             PageRequest.of(0, 3));
+        }
+
+        // Assert
+        Assertions.assertEquals(expectedIds, ids);
+    }
+
+    @Test
+    public void findDailyRollupsBetweenTwoDaysIncludesBothDays() {
+        // Arrange
+        LocalDate day = LocalDate.of(2021, 2, 1);
+
+        for (int i = 0; i < 5; i++) {
+            walletDailyRollupRepository.save(new WalletDailyRollup(MOCK_WALLET_ID, day.plusDays(i), BigDecimal.TEN,
+                                                                   BigDecimal.ONE, 2));
+        }
+
+        // Act
+        List<WalletDailyRollup> rollups = walletDailyRollupRepository.findByWalletIdAndDayBetweenOrderByDayAsc(
+                MOCK_WALLET_ID, day.plusDays(1), day.plusDays(3));
+
+        // Assert
+        Assertions.assertEquals(3, rollups.size());
+        Assertions.assertEquals(day.plusDays(1), rollups.get(0).getDay());
+        Assertions.assertEquals(day.plusDays(3), rollups.get(2).getDay());
+    }
+
+    private WalletTransaction saveTransaction(String walletId, Instant createdAt) {
+        return walletTransactionRepository.save(new WalletTransaction(null, walletId, WalletTransactionType.RECHARGE,
+                                                                      BigDecimal.TEN, BigDecimal.TEN, createdAt));
+    }
+}
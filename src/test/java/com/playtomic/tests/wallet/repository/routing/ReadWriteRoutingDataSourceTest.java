@@ -0,0 +1,128 @@
+package com.playtomic.tests.wallet.repository.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes between two separate H2 databases, each one with a single row naming it.
+ */
+public class ReadWriteRoutingDataSourceTest {
+    private static final String SELECT_NODE_NAME = "select name from node";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource primaryDataSource = createNodeDataSource("primary");
+        DataSource replicaDataSource = createNodeDataSource("replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaReadContext.endRequest();
+    }
+
+    @Test
+    public void readOnlyTransactionAllowedToReadFromReplicaGoesToReplica() {
+        // Act
+        String nodeName = ReplicaReadContext.readFromReplica(() -> readOnlyTransactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject(SELECT_NODE_NAME, String.class)));
+
+        // Assert
+        Assertions.assertEquals("replica", nodeName);
+    }
+
+    @Test
+    public void readOnlyTransactionNotAllowedToReadFromReplicaGoesToPrimary() {
+        // Act
+        String nodeName = readOnlyTransactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject(SELECT_NODE_NAME, String.class));
+
+        // Assert
+        Assertions.assertEquals("primary", nodeName);
+    }
+
+    @Test
+    public void readWriteTransactionGoesToPrimaryEvenWhenReplicaReadsAreAllowed() {
+        // Act
+        String nodeName = ReplicaReadContext.readFromReplica(() -> transactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject(SELECT_NODE_NAME, String.class)));
+
+        // Assert
+        Assertions.assertEquals("primary", nodeName);
+    }
+
+    @Test
+    public void readOnlyTransactionGoesToPrimaryWhenTheRequestReadsItsOwnWrites() {
+        // Arrange
+        ReplicaReadContext.startRequest(true);
+
+        // Act
+        String nodeName = ReplicaReadContext.readFromReplica(() -> readOnlyTransactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject(SELECT_NODE_NAME, String.class)));
+
+        // Assert
+        Assertions.assertEquals("primary", nodeName);
+    }
+
+    @Test
+    public void committedWriteIsRecordedForTheRequest() {
+        // Arrange
+        ReplicaReadContext.startRequest(false);
+        long startTime = System.currentTimeMillis();
+
+        // Act
+        transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.update("update node set name = ?", "primary"));
+
+        // Assert
+        Assertions.assertNotNull(ReplicaReadContext.getLastCommittedWriteTime());
+        Assertions.assertTrue(ReplicaReadContext.getLastCommittedWriteTime() >= startTime);
+    }
+
+    @Test
+    public void rolledBackWriteIsNotRecordedForTheRequest() {
+        // Arrange
+        ReplicaReadContext.startRequest(false);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set name = ?", "primary");
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        Assertions.assertNull(ReplicaReadContext.getLastCommittedWriteTime());
+    }
+
+    private DataSource createNodeDataSource(String nodeName) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + nodeName + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate nodeJdbcTemplate = new JdbcTemplate(dataSource);
+
+        nodeJdbcTemplate.execute("drop table if exists node");
+        nodeJdbcTemplate.execute("create table node (name varchar(16))");
+        nodeJdbcTemplate.update("insert into node (name) values (?)", nodeName);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,64 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class ConsistentHashRingTest {
+    private static final int NUMBER_OF_KEYS = 100000;
+
+    @Test
+    public void keysAreSpreadEvenlyOverTheNodes() {
+        // Arrange
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(createNodes(4), 128);
+        Map<String, Integer> numberOfKeysByNode = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+            numberOfKeysByNode.merge(ring.getNode(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+
+        // Assert
+        Assertions.assertEquals(4, numberOfKeysByNode.size());
+        numberOfKeysByNode.values().forEach(numberOfKeys -> Assertions.assertTrue(
+                Math.abs(numberOfKeys - NUMBER_OF_KEYS / 4) < NUMBER_OF_KEYS / 4 * 0.2,
+                "Unbalanced node with " + numberOfKeys + " keys"));
+    }
+
+    @Test
+    public void addingANodeOnlyMovesKeysToTheNewNode() {
+        // Arrange
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(createNodes(4), 128);
+        ConsistentHashRing<String> ringWithNewNode = ring.withNode("node-4", "node-4");
+        int numberOfKeysMoved = 0;
+
+        // Act
+        for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            String newNode = ringWithNewNode.getNode(key);
+
+            if (!newNode.equals(ring.getNode(key))) {
+                Assertions.assertEquals("node-4", newNode);
+                numberOfKeysMoved++;
+            }
+        }
+
+        // Assert
+        Assertions.assertTrue(Math.abs(numberOfKeysMoved - NUMBER_OF_KEYS / 5) < NUMBER_OF_KEYS / 5 * 0.2,
+                              numberOfKeysMoved + " keys moved");
+    }
+
+    private Map<String, String> createNodes(int numberOfNodes) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+
+        for (int i = 0; i < numberOfNodes; i++) {
+            nodes.put("node-" + i, "node-" + i);
+        }
+
+        return nodes;
+    }
+}
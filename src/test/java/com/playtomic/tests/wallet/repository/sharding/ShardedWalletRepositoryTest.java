@@ -0,0 +1,359 @@
+package com.playtomic.tests.wallet.repository.sharding;
+
+import com.playtomic.tests.wallet.dto.ShardMembership;
+import com.playtomic.tests.wallet.dto.ShardStatus;
+import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.exception.BusinessException;
+import com.playtomic.tests.wallet.repository.ShardMembershipRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs against several in-memory H2 databases, one per shard, with the topology kept in a map instead of the main
+ * database.
+ */
+public class ShardedWalletRepositoryTest {
+    private static final BigDecimal INITIAL_CURRENT_BALANCE_OF_WALLET = new BigDecimal(1000);
+    private static final int NUMBER_OF_WALLETS = 500;
+
+    private final String testId = UUID.randomUUID().toString();
+    private final Map<String, ShardMembership> shardMembershipsByName = new ConcurrentHashMap<>();
+    private ShardingProperties shardingProperties;
+    private ShardCatalog shardCatalog;
+    private ShardedWalletRepository walletRepository;
+
+    @BeforeEach
+    public void setUp() {
+        shardingProperties = new ShardingProperties();
+
+        for (int i = 0; i < 3; i++) {
+            shardingProperties.getShards().add(createShardProperties("shard-" + i));
+        }
+
+        shardingProperties.getSpareShards().add(createShardProperties("shard-3"));
+
+        shardCatalog = new ShardCatalog(createShardMembershipRepository(), shardingProperties);
+        walletRepository = shardCatalog.openWalletRepository();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        walletRepository.close();
+    }
+
+    @Test
+    public void createdWalletsAreStoredInTheirOwningShard() {
+        // Arrange
+        List<String> walletIds = createWallets();
+
+        // Act && Assert
+        for (String walletId : walletIds) {
+            Shard owningShard = walletRepository.getOwningShard(walletId);
+
+            Assertions.assertTrue(owningShard.getWalletRepository().findById(walletId).isPresent());
+            Assertions.assertTrue(walletRepository.findById(walletId).isPresent());
+        }
+
+        walletRepository.getShards().forEach(shard -> Assertions.assertTrue(shard.countWallets() > 0));
+        Assertions.assertEquals(NUMBER_OF_WALLETS, walletRepository.streamAllIds().count());
+    }
+
+    @Test
+    public void savedWalletIsUpdatedInItsOwningShard() {
+        // Arrange
+        Wallet wallet = walletRepository.save(createWalletInstance());
+        wallet.addAmountToCurrentBalance(BigDecimal.TEN);
+
+        // Act
+        walletRepository.save(wallet);
+
+        // Assert
+        Optional<Wallet> walletUpdated = walletRepository.findById(wallet.getId());
+        Assertions.assertTrue(walletUpdated.isPresent());
+        Assertions.assertEquals(0, INITIAL_CURRENT_BALANCE_OF_WALLET.add(BigDecimal.TEN)
+                                                                     .compareTo(walletUpdated.get().getCurrentBalance()));
+    }
+
+    @Test
+    public void addShardMovesToItTheWalletsItOwns() {
+        // Arrange
+        List<String> walletIds = createWallets();
+
+        // Act
+        RebalancingReport rebalancingReport = new ShardRebalancer(walletRepository, shardCatalog).addShard("shard-3");
+
+        // Assert
+        Shard newShard = walletRepository.getShards().get(3);
+        Assertions.assertEquals("shard-3", newShard.getName());
+        Assertions.assertTrue(rebalancingReport.getNumberOfWalletsMoved() > 0);
+        Assertions.assertEquals(rebalancingReport.getNumberOfWalletsMoved(), newShard.countWallets());
+        Assertions.assertEquals(4, walletRepository.getShards().size());
+        Assertions.assertFalse(walletRepository.getJoiningShard().isPresent());
+        Assertions.assertEquals(ShardStatus.ACTIVE, shardMembershipsByName.get("shard-3").getStatus());
+
+        long numberOfWallets = 0;
+
+        for (Shard shard : walletRepository.getShards()) {
+            numberOfWallets += shard.countWallets();
+        }
+
+        Assertions.assertEquals(NUMBER_OF_WALLETS, numberOfWallets);
+
+        for (String walletId : walletIds) {
+            Assertions.assertTrue(walletRepository.getOwningShard(walletId)
+                                                  .getWalletRepository().findById(walletId).isPresent());
+        }
+    }
+
+    @Test
+    public void writesDuringAddShardAreNotLost() throws Exception {
+        // Arrange
+        List<String> walletIds = createWallets();
+        AtomicBoolean rebalancing = new AtomicBoolean(true);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<Integer> numberOfRoundsFuture = executorService.submit(() -> {
+            int numberOfRounds = 0;
+
+            do {
+                for (String walletId : walletIds) {
+                    Wallet wallet = walletRepository.findById(walletId).orElseThrow(IllegalStateException::new);
+                    wallet.addAmountToCurrentBalance(BigDecimal.ONE);
+                    walletRepository.save(wallet);
+                }
+
+                numberOfRounds++;
+            } while (rebalancing.get());
+
+            return numberOfRounds;
+        });
+
+        new ShardRebalancer(walletRepository, shardCatalog).addShard("shard-3");
+        rebalancing.set(false);
+        int numberOfRounds = numberOfRoundsFuture.get();
+        executorService.shutdown();
+
+        // Assert
+        BigDecimal expectedCurrentBalance = INITIAL_CURRENT_BALANCE_OF_WALLET.add(new BigDecimal(numberOfRounds));
+
+        for (String walletId : walletIds) {
+            Wallet wallet = walletRepository.findById(walletId).orElseThrow(IllegalStateException::new);
+            Assertions.assertEquals(0, expectedCurrentBalance.compareTo(wallet.getCurrentBalance()),
+                                    "Wrong balance for wallet " + walletId);
+        }
+    }
+
+    @Test
+    public void addShardOnlyAcceptsSpareShards() {
+        // Arrange
+        ShardRebalancer shardRebalancer = new ShardRebalancer(walletRepository, shardCatalog);
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> shardRebalancer.addShard("shard-9"));
+        Assertions.assertThrows(BusinessException.class, () -> shardRebalancer.addShard("shard-0"));
+        Assertions.assertEquals(3, walletRepository.getShards().size());
+        Assertions.assertEquals(Collections.singletonList("shard-3"), shardCatalog.getSpareShardNames());
+    }
+
+    @Test
+    public void interruptedAddShardIsResumedAfterARestart() {
+        // Arrange
+        createWallets();
+        Shard newShard = shardCatalog.openSpareShard("shard-3");
+        ShardMembership joiningMembership = shardCatalog.markJoining(newShard);
+        walletRepository.beginRebalancing(newShard);
+
+        Shard firstShard = walletRepository.getShards().get(0);
+        List<String> walletIdsOfFirstShard = firstShard.getWalletRepository().streamIdsAfter(null)
+                                                       .collect(Collectors.toList());
+        String lastWalletId = walletIdsOfFirstShard.get(walletIdsOfFirstShard.size() / 2);
+        long numberOfWalletsMoved = 0;
+
+        for (String walletId : walletIdsOfFirstShard.subList(0, walletIdsOfFirstShard.size() / 2 + 1)) {
+            if (walletRepository.moveWallet(firstShard, walletId)) {
+                numberOfWalletsMoved++;
+            }
+        }
+
+        shardCatalog.recordProgress(joiningMembership, firstShard, lastWalletId, numberOfWalletsMoved);
+        ShardedWalletRepository interruptedWalletRepository = walletRepository;
+
+        // Act
+        shardCatalog = new ShardCatalog(createShardMembershipRepository(), shardingProperties);
+        walletRepository = shardCatalog.openWalletRepository();
+        interruptedWalletRepository.close();
+
+        Assertions.assertEquals("shard-3", walletRepository.getJoiningShard().map(Shard::getName).orElse(null));
+        RebalancingReport rebalancingReport = new ShardRebalancer(walletRepository, shardCatalog).resumeRebalancing();
+
+        // Assert
+        Assertions.assertFalse(walletRepository.getJoiningShard().isPresent());
+        Assertions.assertEquals(ShardStatus.ACTIVE, shardMembershipsByName.get("shard-3").getStatus());
+        Assertions.assertEquals(rebalancingReport.getNumberOfWalletsMoved(),
+                                walletRepository.getShards().get(3).countWallets());
+
+        List<String> walletIds = walletRepository.streamAllIds().collect(Collectors.toList());
+        Assertions.assertEquals(NUMBER_OF_WALLETS, walletIds.size());
+
+        for (String walletId : walletIds) {
+            Assertions.assertTrue(walletRepository.getOwningShard(walletId)
+                                                  .getWalletRepository().findById(walletId).isPresent());
+        }
+    }
+
+    @Test
+    public void failedCommitOfTheMainDatabaseIsUndoneInTheShard() {
+        // Arrange
+        Wallet existingWallet = walletRepository.save(createWalletInstance());
+        TransactionTemplate transactionTemplate = createMainTransactionTemplate();
+        AtomicReference<String> newWalletId = new AtomicReference<>();
+
+        // Act
+        Assertions.assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            existingWallet.addAmountToCurrentBalance(BigDecimal.TEN);
+            walletRepository.save(existingWallet);
+            newWalletId.set(walletRepository.save(createWalletInstance()).getId());
+            failCommit();
+        }));
+
+        // Assert
+        Optional<Wallet> walletInShard = walletRepository.findById(existingWallet.getId());
+        Assertions.assertTrue(walletInShard.isPresent());
+        Assertions.assertEquals(0, INITIAL_CURRENT_BALANCE_OF_WALLET.compareTo(walletInShard.get()
+                                                                                        .getCurrentBalance()));
+        Assertions.assertFalse(walletRepository.findById(newWalletId.get()).isPresent());
+    }
+
+    @Test
+    public void conditionalBalanceUpdateIsMadeWhenTheMainDatabaseCommitsAndUndoneIfItFails() {
+        // Arrange
+        Wallet wallet = walletRepository.save(createWalletInstance());
+        BigDecimal newCurrentBalance = INITIAL_CURRENT_BALANCE_OF_WALLET.add(BigDecimal.TEN);
+        TransactionTemplate transactionTemplate = createMainTransactionTemplate();
+
+        // Act
+        Integer numberOfWalletsUpdated = transactionTemplate.execute(status -> walletRepository.updateCurrentBalance(
+                wallet.getId(), INITIAL_CURRENT_BALANCE_OF_WALLET, newCurrentBalance));
+        Assertions.assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            walletRepository.updateCurrentBalance(wallet.getId(), newCurrentBalance, BigDecimal.ZERO);
+            failCommit();
+        }));
+
+        // Assert
+        Assertions.assertEquals(1, numberOfWalletsUpdated);
+        Assertions.assertEquals(0, newCurrentBalance.compareTo(walletRepository.findById(wallet.getId())
+                                                                               .orElseThrow(IllegalStateException::new)
+                                                                               .getCurrentBalance()));
+        Assertions.assertEquals(0, (int) transactionTemplate.execute(status -> walletRepository.updateCurrentBalance(
+                wallet.getId(), INITIAL_CURRENT_BALANCE_OF_WALLET, BigDecimal.ZERO)));
+    }
+
+    private List<String> createWallets() {
+        List<String> walletIds = new ArrayList<>();
+
+        for (int i = 0; i < NUMBER_OF_WALLETS; i++) {
+            walletIds.add(walletRepository.save(createWalletInstance()).getId());
+        }
+
+        return walletIds;
+    }
+
+    private TransactionTemplate createMainTransactionTemplate() {
+        DriverManagerDataSource mainDataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + testId + "-main;DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+
+        return new TransactionTemplate(new DataSourceTransactionManager(mainDataSource));
+    }
+
+    /**
+     * Makes the current transaction of the main database fail right before it commits, after the shard writes.
+     */
+    private static void failCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                throw new IllegalStateException("Commit of the main database failed");
+            }
+        });
+    }
+
+    private ShardProperties createShardProperties(String name) {
+        return new ShardProperties(name, "jdbc:h2:mem:" + testId + "-" + name + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+    }
+
+    /**
+     * Keeps copies of the memberships saved, as the main database would.
+     */
+    private ShardMembershipRepository createShardMembershipRepository() {
+        ShardMembershipRepository shardMembershipRepository = Mockito.mock(ShardMembershipRepository.class);
+
+        Mockito.when(shardMembershipRepository.findAll())
+               .thenAnswer(invocation -> shardMembershipsByName.values().stream()
+                                                               .map(ShardedWalletRepositoryTest::copy)
+                                                               .collect(Collectors.toList()));
+        Mockito.when(shardMembershipRepository.findById(Mockito.anyString()))
+               .thenAnswer(invocation -> {
+                   String name = invocation.getArgument(0);
+
+                   return Optional.ofNullable(shardMembershipsByName.get(name)).map(ShardedWalletRepositoryTest::copy);
+               });
+        Mockito.when(shardMembershipRepository.existsById(Mockito.anyString()))
+               .thenAnswer(invocation -> shardMembershipsByName.containsKey((String) invocation.getArgument(0)));
+        Mockito.when(shardMembershipRepository.save(Mockito.any(ShardMembership.class)))
+               .thenAnswer(invocation -> {
+                   ShardMembership shardMembership = invocation.getArgument(0);
+                   shardMembershipsByName.put(shardMembership.getName(), copy(shardMembership));
+
+                   return shardMembership;
+               });
+        Mockito.when(shardMembershipRepository.saveAll(Mockito.anyIterable()))
+               .thenAnswer(invocation -> {
+                   Iterable<ShardMembership> shardMemberships = invocation.getArgument(0);
+                   shardMemberships.forEach(shardMembership -> shardMembershipsByName.put(shardMembership.getName(),
+                                                                                          copy(shardMembership)));
+
+                   return shardMemberships;
+               });
+
+        return shardMembershipRepository;
+    }
+
+    private static ShardMembership copy(ShardMembership shardMembership) {
+        return new ShardMembership(shardMembership.getName(), shardMembership.getStatus(),
+                                   shardMembership.getRebalanceSourceShard(),
+                                   shardMembership.getRebalanceLastWalletId(),
+                                   shardMembership.getNumberOfWalletsMoved());
+    }
+
+    private Wallet createWalletInstance() {
+        Wallet wallet = new Wallet();
+        wallet.setCurrentBalance(INITIAL_CURRENT_BALANCE_OF_WALLET);
+        wallet.setHeldBalance(BigDecimal.ZERO);
+
+        return wallet;
+    }
+}
@@ -1,27 +1,60 @@
 package com.playtomic.tests.wallet.service.impl;
 
 import com.playtomic.tests.wallet.domain.Recharge;
+import com.playtomic.tests.wallet.domain.TransactionPage;
+import com.playtomic.tests.wallet.domain.TransactionSummary;
+import com.playtomic.tests.wallet.dto.Hold;
+import com.playtomic.tests.wallet.dto.HoldStatus;
 import com.playtomic.tests.wallet.dto.Wallet;
+import com.playtomic.tests.wallet.dto.WalletDailyRollup;
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import com.playtomic.tests.wallet.dto.WalletEventType;
+import com.playtomic.tests.wallet.dto.WalletTransaction;
+import com.playtomic.tests.wallet.dto.WalletTransactionType;
 import com.playtomic.tests.wallet.exception.BusinessException;
+import com.playtomic.tests.wallet.exception.TechnicalException;
+import com.playtomic.tests.wallet.repository.HoldRepository;
+import com.playtomic.tests.wallet.repository.WalletDailyRollupRepository;
+import com.playtomic.tests.wallet.repository.WalletEventRepository;
 import com.playtomic.tests.wallet.repository.WalletRepository;
+import com.playtomic.tests.wallet.repository.WalletTransactionRepository;
 import com.playtomic.tests.wallet.service.WalletServiceImpl;
+import com.playtomic.tests.wallet.service.hold.HoldExpiryScheduler;
+import com.playtomic.tests.wallet.service.hotkey.HotWallet;
+import com.playtomic.tests.wallet.service.hotkey.HotWalletTracker;
+import com.playtomic.tests.wallet.service.index.WalletIdIndex;
 import com.playtomic.tests.wallet.service.stripe.StripeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,11 +64,28 @@ import static org.mockito.Mockito.when;
 public class WalletServiceImplTest {
     private static final String MOCK_WALLET_ID = "e7c08fea-447b-4744-bbda-a81b6944bd74";
     private static final BigDecimal INITIAL_CURRENT_BALANCE_OF_WALLET = new BigDecimal(1000);
+    private static final String MOCK_HOLD_ID = "0f4b2c9e-5d3a-4a8e-9c61-2b7d9e1f3a55";
 
     @Mock
     private WalletRepository walletRepository;
     @Mock
     private StripeService stripeService;
+    @Mock
+    private HoldRepository holdRepository;
+    @Mock
+    private HoldExpiryScheduler holdExpiryScheduler;
+    @Mock
+    private WalletEventRepository walletEventRepository;
+    @Mock
+    private WalletTransactionRepository walletTransactionRepository;
+    @Mock
+    private WalletDailyRollupRepository walletDailyRollupRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private WalletIdIndex walletIdIndex = new WalletIdIndex(new SimpleMeterRegistry(), 1000, 0.01);
+    @Spy
+    private HotWalletTracker hotWalletTracker = new HotWalletTracker(true, 10, 60, 6, 256, 1);
     @InjectMocks
     private WalletServiceImpl walletServiceImpl;
 
@@ -90,6 +140,7 @@ public class WalletServiceImplTest {
         Wallet walletToBeRecharged = createWalletInstance();
 
         when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeRecharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
 
         // Act
         walletServiceImpl.rechargeWallet(MOCK_WALLET_ID, recharge);
@@ -97,7 +148,9 @@ public class WalletServiceImplTest {
         // Assert
         Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.add(recharge.getAmount()),
                                 walletToBeRecharged.getCurrentBalance());
-        verify(walletRepository, times(1)).save(any());
+        verify(walletRepository, times(1)).updateCurrentBalance(MOCK_WALLET_ID, INITIAL_CURRENT_BALANCE_OF_WALLET,
+                                                                walletToBeRecharged.getCurrentBalance());
+        verify(walletRepository, never()).save(any());
     }
 
     @Test
@@ -113,6 +166,7 @@ public class WalletServiceImplTest {
         Recharge recharge = createRechargeInstance();
 
         when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeRecharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
 
         // Act
         for (int i = 0; i < numberOfThreads; i++) {
@@ -183,6 +237,7 @@ public class WalletServiceImplTest {
         BigDecimal amountToBeCharged = new BigDecimal(500);
 
         when(walletRepository.findById(any())).thenReturn(Optional.of(walletToBeCharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
 
         // Act
         walletServiceImpl.chargeWallet(walletToBeChargedId, amountToBeCharged);
@@ -190,7 +245,25 @@ public class WalletServiceImplTest {
         // Assert
         Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.subtract(amountToBeCharged),
                                 walletToBeCharged.getCurrentBalance());
-        verify(walletRepository, times(1)).save(any());
+        verify(walletRepository, times(1)).updateCurrentBalance(walletToBeChargedId, INITIAL_CURRENT_BALANCE_OF_WALLET,
+                                                                walletToBeCharged.getCurrentBalance());
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    public void chargeWalletWhenBalanceChangedMeanwhileFails() {
+        // Arrange
+        Wallet walletToBeCharged = createWalletInstance();
+        String walletToBeChargedId = walletToBeCharged.getId();
+
+        when(walletRepository.findById(any())).thenReturn(Optional.of(walletToBeCharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(0);
+
+        // Act && Assert
+        Assertions.assertThrows(TechnicalException.class, () -> {
+            walletServiceImpl.chargeWallet(walletToBeChargedId, new BigDecimal(500));
+        }, "Wallet with id " + walletToBeChargedId + " was changed by another request, retry");
+        verify(walletEventRepository, never()).save(any());
     }
 
     @Test
@@ -206,6 +279,7 @@ public class WalletServiceImplTest {
         BigDecimal amountToBeCharged = new BigDecimal(10);
 
         when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeCharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
 
         // Act
         for (int i = 0; i < numberOfThreads; i++) {
@@ -267,6 +341,397 @@ public class WalletServiceImplTest {
            + amountToBeCharged);
     }
 
+    @Test
+    public void createWalletAddsItsIdToTheWalletIdIndex() {
+        // Arrange
+        Wallet walletToBeCreated = createWalletInstance();
+
+        when(walletRepository.save(any())).thenReturn(walletToBeCreated);
+
+        // Act
+        walletServiceImpl.createWallet(walletToBeCreated);
+        walletIdIndex.markReady();
+
+        // Assert
+        Assertions.assertTrue(walletIdIndex.mightContain(MOCK_WALLET_ID));
+    }
+
+    @Test
+    public void getWalletByIdRejectedByTheWalletIdIndexFailsWithoutRepositoryAccess() {
+        // Arrange
+        String nonExistingWalledId = "33af95ee-3de4-4d1f-b0f6-f71cc568665e";
+        walletIdIndex.markReady();
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.getWallet(nonExistingWalledId);
+        }, "Wallet with id " + nonExistingWalledId + " does not exist.");
+        verify(walletRepository, never()).findById(any());
+    }
+
+    @Test
+    public void chargeWalletRejectedByTheWalletIdIndexFailsWithoutRepositoryAccess() {
+        // Arrange
+        String nonExistingWalledId = "33af95ee-3de4-4d1f-b0f6-f71cc568665e";
+        BigDecimal amountToBeCharged = new BigDecimal(500);
+        walletIdIndex.add(MOCK_WALLET_ID);
+        walletIdIndex.markReady();
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.chargeWallet(nonExistingWalledId, amountToBeCharged);
+        }, "Wallet with id " + nonExistingWalledId + " does not exist.");
+        verify(walletRepository, never()).findById(any());
+    }
+
+    @Test
+    public void getWalletReadsInAReadOnlyTransaction() {
+        // Arrange
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(createWalletInstance()));
+
+        // Act
+        walletServiceImpl.getWallet(MOCK_WALLET_ID);
+
+        // Assert
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    public void rechargeWalletWritesARechargedEventToTheOutbox() {
+        // Arrange
+        Recharge recharge = createRechargeInstance();
+        Wallet walletToBeRecharged = createWalletInstance();
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeRecharged));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
+
+        // Act
+        walletServiceImpl.rechargeWallet(MOCK_WALLET_ID, recharge);
+
+        // Assert
+        ArgumentCaptor<WalletEvent> eventCaptor = ArgumentCaptor.forClass(WalletEvent.class);
+        verify(walletEventRepository, times(1)).save(eventCaptor.capture());
+        Assertions.assertEquals(MOCK_WALLET_ID, eventCaptor.getValue().getWalletId());
+        Assertions.assertEquals(WalletEventType.RECHARGED, eventCaptor.getValue().getType());
+        Assertions.assertEquals(recharge.getAmount(), eventCaptor.getValue().getAmount());
+        Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.add(recharge.getAmount()),
+                                eventCaptor.getValue().getCurrentBalance());
+    }
+
+    @Test
+    public void chargeWalletWithAnAmountWhenCurrentBalanceIsNotSufficientWritesNoEvent() {
+        // Arrange
+        Wallet walletToBeCharged = createWalletInstance();
+        BigDecimal amountToBeCharged = INITIAL_CURRENT_BALANCE_OF_WALLET.add(INITIAL_CURRENT_BALANCE_OF_WALLET);
+
+        when(walletRepository.findById(any())).thenReturn(Optional.of(walletToBeCharged));
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.chargeWallet(MOCK_WALLET_ID, amountToBeCharged);
+        });
+        verify(walletEventRepository, never()).save(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    public void holdAmountMovesItFromCurrentToHeldBalanceSuccessfully() {
+        // Arrange
+        Wallet walletToBeHeld = createWalletInstance();
+        BigDecimal amountToBeHeld = new BigDecimal(400);
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeHeld));
+        when(holdRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Hold hold = walletServiceImpl.holdAmount(MOCK_WALLET_ID, amountToBeHeld, Duration.ofMinutes(15));
+
+        // Assert
+        Assertions.assertEquals(HoldStatus.OPEN, hold.getStatus());
+        Assertions.assertEquals(amountToBeHeld, hold.getAmount());
+        Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.subtract(amountToBeHeld),
+                                walletToBeHeld.getCurrentBalance());
+        Assertions.assertEquals(amountToBeHeld, walletToBeHeld.getHeldBalance());
+        verify(walletRepository, times(1)).save(walletToBeHeld);
+        verify(holdExpiryScheduler, times(1)).schedule(any(), eq(hold.getExpiresAt()), any());
+    }
+
+    @Test
+    public void holdAmountWhenCurrentBalanceIsNotSufficientFails() {
+        // Arrange
+        Wallet walletToBeHeld = createWalletInstance();
+        BigDecimal amountToBeHeld = INITIAL_CURRENT_BALANCE_OF_WALLET.add(INITIAL_CURRENT_BALANCE_OF_WALLET);
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeHeld));
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.holdAmount(MOCK_WALLET_ID, amountToBeHeld, Duration.ofMinutes(15));
+        }, "There is not enough balance to charge wallet with id " + MOCK_WALLET_ID + " the amount of "
+           + amountToBeHeld);
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    public void holdAmountThatIsNotPositiveFails() {
+        // Act && Assert
+        for (BigDecimal amountToBeHeld : Arrays.asList(new BigDecimal(-100), BigDecimal.ZERO)) {
+            Assertions.assertThrows(BusinessException.class, () -> {
+                walletServiceImpl.holdAmount(MOCK_WALLET_ID, amountToBeHeld, Duration.ofMinutes(15));
+            }, "Hold amount must be positive");
+        }
+
+        verify(walletRepository, never()).save(any());
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    public void captureHoldRemovesItFromHeldBalanceSuccessfully() {
+        // Arrange
+        BigDecimal amountHeld = new BigDecimal(400);
+        Wallet walletWithHold = createWalletInstanceWithHold(amountHeld);
+        Hold hold = createHoldInstance(amountHeld);
+
+        when(holdRepository.findById(MOCK_HOLD_ID)).thenReturn(Optional.of(hold));
+        when(walletRepository.findById(MOCK_WALLET_ID)).thenReturn(Optional.of(walletWithHold));
+
+        // Act
+        walletServiceImpl.captureHold(MOCK_HOLD_ID);
+
+        // Assert
+        Assertions.assertEquals(HoldStatus.CAPTURED, hold.getStatus());
+        Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.subtract(amountHeld),
+                                walletWithHold.getCurrentBalance());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(walletWithHold.getHeldBalance()));
+        verify(holdExpiryScheduler, times(1)).cancel(MOCK_HOLD_ID);
+    }
+
+    @Test
+    public void releaseHoldReturnsItToCurrentBalanceSuccessfully() {
+        // Arrange
+        BigDecimal amountHeld = new BigDecimal(400);
+        Wallet walletWithHold = createWalletInstanceWithHold(amountHeld);
+        Hold hold = createHoldInstance(amountHeld);
+
+        when(holdRepository.findById(MOCK_HOLD_ID)).thenReturn(Optional.of(hold));
+        when(walletRepository.findById(MOCK_WALLET_ID)).thenReturn(Optional.of(walletWithHold));
+
+        // Act
+        walletServiceImpl.releaseHold(MOCK_HOLD_ID);
+
+        // Assert
+        Assertions.assertEquals(HoldStatus.RELEASED, hold.getStatus());
+        Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET, walletWithHold.getCurrentBalance());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(walletWithHold.getHeldBalance()));
+        verify(holdExpiryScheduler, times(1)).cancel(MOCK_HOLD_ID);
+    }
+
+    @Test
+    public void captureHoldThatIsNotOpenFails() {
+        // Arrange
+        Hold hold = createHoldInstance(new BigDecimal(400));
+        hold.setStatus(HoldStatus.RELEASED);
+
+        when(holdRepository.findById(MOCK_HOLD_ID)).thenReturn(Optional.of(hold));
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.captureHold(MOCK_HOLD_ID);
+        }, "Hold with id " + MOCK_HOLD_ID + " is RELEASED and not open anymore.");
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    public void releaseHoldWhenHoldDoesNotExistFails() {
+        // Arrange
+        when(holdRepository.findById(MOCK_HOLD_ID)).thenReturn(Optional.empty());
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.releaseHold(MOCK_HOLD_ID);
+        }, "Hold with id " + MOCK_HOLD_ID + " does not exist.");
+    }
+
+    @Test
+    public void chargeWalletRecordsTheTransactionAndAddsItToTheDailyRollup() {
+        // Arrange
+        Wallet walletToBeCharged = createWalletInstance();
+        BigDecimal amountToBeCharged = new BigDecimal(300);
+        WalletDailyRollup rollup = new WalletDailyRollup(MOCK_WALLET_ID, LocalDate.now(ZoneOffset.UTC),
+                                                         new BigDecimal(1000), new BigDecimal(100), 2);
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(walletToBeCharged));
+        when(walletDailyRollupRepository.findById(any())).thenReturn(Optional.of(rollup));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
+
+        // Act
+        walletServiceImpl.chargeWallet(MOCK_WALLET_ID, amountToBeCharged);
+
+        // Assert
+        ArgumentCaptor<WalletTransaction> transactionCaptor = ArgumentCaptor.forClass(WalletTransaction.class);
+        verify(walletTransactionRepository, times(1)).save(transactionCaptor.capture());
+        Assertions.assertEquals(WalletTransactionType.CHARGE, transactionCaptor.getValue().getType());
+        Assertions.assertEquals(amountToBeCharged, transactionCaptor.getValue().getAmount());
+        Assertions.assertEquals(INITIAL_CURRENT_BALANCE_OF_WALLET.subtract(amountToBeCharged),
+                                transactionCaptor.getValue().getBalanceAfter());
+
+        verify(walletDailyRollupRepository, times(1)).save(rollup);
+        Assertions.assertEquals(new BigDecimal(1000), rollup.getTotalRecharged());
+        Assertions.assertEquals(new BigDecimal(400), rollup.getTotalCharged());
+        Assertions.assertEquals(3, rollup.getNumberOfTransactions());
+    }
+
+    @Test
+    public void captureHoldAddsTheCapturedAmountToTheChargedTotalOfTheDailyRollup() {
+        // Arrange
+        BigDecimal amountHeld = new BigDecimal(400);
+        Wallet walletWithHold = createWalletInstanceWithHold(amountHeld);
+        WalletDailyRollup rollup = new WalletDailyRollup(MOCK_WALLET_ID, LocalDate.now(ZoneOffset.UTC),
+                                                         new BigDecimal(1000), new BigDecimal(100), 2);
+
+        when(holdRepository.findById(MOCK_HOLD_ID)).thenReturn(Optional.of(createHoldInstance(amountHeld)));
+        when(walletRepository.findById(MOCK_WALLET_ID)).thenReturn(Optional.of(walletWithHold));
+        when(walletDailyRollupRepository.findById(any())).thenReturn(Optional.of(rollup));
+
+        // Act
+        walletServiceImpl.captureHold(MOCK_HOLD_ID);
+
+        // Assert
+        verify(walletDailyRollupRepository, times(1)).save(rollup);
+        Assertions.assertEquals(new BigDecimal(1000), rollup.getTotalRecharged());
+        Assertions.assertEquals(new BigDecimal(500), rollup.getTotalCharged());
+        Assertions.assertEquals(3, rollup.getNumberOfTransactions());
+    }
+
+    @Test
+    public void getTransactionsReturnsACursorThatContinuesAfterTheLastTransactionOfThePage() {
+        // Arrange
+        Instant createdAt = Instant.parse("2021-02-01T10:15:30.123456Z");
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(createWalletInstance()));
+        when(walletTransactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(eq(MOCK_WALLET_ID), any()))
+                .thenReturn(Arrays.asList(createTransactionInstance(3L, createdAt),
+                                          createTransactionInstance(2L, createdAt),
+                                          createTransactionInstance(1L, createdAt.minusSeconds(1))));
+
+        // Act
+        TransactionPage firstPage = walletServiceImpl.getTransactions(MOCK_WALLET_ID, null, 2);
+        walletServiceImpl.getTransactions(MOCK_WALLET_ID, firstPage.getNextCursor(), 2);
+
+        // Assert
+        Assertions.assertEquals(2, firstPage.getTransactions().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+        verify(walletTransactionRepository, times(1)).findPageAfter(eq(MOCK_WALLET_ID), eq(createdAt), eq(2L), any());
+    }
+
+    @Test
+    public void getTransactionsOfTheLastPageReturnsNoCursor() {
+        // Arrange
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(createWalletInstance()));
+        when(walletTransactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(eq(MOCK_WALLET_ID), any()))
+                .thenReturn(Arrays.asList(createTransactionInstance(2L, Instant.now()),
+                                          createTransactionInstance(1L, Instant.now())));
+
+        // Act
+        TransactionPage page = walletServiceImpl.getTransactions(MOCK_WALLET_ID, null, 2);
+
+        // Assert
+        Assertions.assertEquals(2, page.getTransactions().size());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getTransactionsWithAnInvalidCursorFails() {
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.getTransactions(MOCK_WALLET_ID, "not-a-cursor", 50);
+        });
+        verify(walletTransactionRepository, never()).findPageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getTransactionsWithALimitAboveTheMaximumFails() {
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.getTransactions(MOCK_WALLET_ID, null, 1000);
+        });
+    }
+
+    @Test
+    public void getTransactionSummaryAddsUpTheDailyRollupsOfThePeriod() {
+        // Arrange
+        LocalDate from = LocalDate.of(2021, 2, 1);
+        LocalDate to = LocalDate.of(2021, 2, 28);
+
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(createWalletInstance()));
+        when(walletDailyRollupRepository.findByWalletIdAndDayBetweenOrderByDayAsc(MOCK_WALLET_ID, from, to))
+                .thenReturn(Arrays.asList(
+                        new WalletDailyRollup(MOCK_WALLET_ID, from, new BigDecimal(500), new BigDecimal(200), 3),
+                        new WalletDailyRollup(MOCK_WALLET_ID, to, BigDecimal.ZERO, new BigDecimal(50), 1)));
+
+        // Act
+        TransactionSummary summary = walletServiceImpl.getTransactionSummary(MOCK_WALLET_ID, from, to);
+
+        // Assert
+        Assertions.assertEquals(new BigDecimal(500), summary.getTotalRecharged());
+        Assertions.assertEquals(new BigDecimal(250), summary.getTotalCharged());
+        Assertions.assertEquals(4, summary.getNumberOfTransactions());
+    }
+
+    @Test
+    public void getTransactionSummaryThatStartsAfterItEndsFails() {
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.getTransactionSummary(MOCK_WALLET_ID, LocalDate.of(2021, 3, 1),
+                                                    LocalDate.of(2021, 2, 1));
+        }, "Summary cannot start after it ends");
+    }
+
+    @Test
+    public void getAndChargeWalletAreRecordedAsRequestsForTheWallet() {
+        // Arrange
+        when(walletRepository.findById(anyString())).thenReturn(Optional.of(createWalletInstance()));
+        when(walletRepository.updateCurrentBalance(any(), any(), any())).thenReturn(1);
+
+        // Act
+        walletServiceImpl.getWallet(MOCK_WALLET_ID);
+        walletServiceImpl.chargeWallet(MOCK_WALLET_ID, new BigDecimal(10));
+
+        // Assert
+        List<HotWallet> hotWallets = hotWalletTracker.getHotWallets();
+        Assertions.assertEquals(1, hotWallets.size());
+        Assertions.assertEquals(MOCK_WALLET_ID, hotWallets.get(0).getWalletId());
+        Assertions.assertEquals(2, hotWallets.get(0).getNumberOfRequests());
+    }
+
+    @Test
+    public void walletRejectedByTheWalletIdIndexIsNotRecordedAsARequest() {
+        // Arrange
+        walletIdIndex.markReady();
+
+        // Act && Assert
+        Assertions.assertThrows(BusinessException.class, () -> {
+            walletServiceImpl.getWallet(MOCK_WALLET_ID);
+        });
+        verify(hotWalletTracker, never()).record(any(), anyLong());
+    }
+
+    private WalletTransaction createTransactionInstance(Long id, Instant createdAt) {
+        return new WalletTransaction(id, MOCK_WALLET_ID, WalletTransactionType.RECHARGE, BigDecimal.TEN,
+                                     INITIAL_CURRENT_BALANCE_OF_WALLET, createdAt);
+    }
+
+    private Wallet createWalletInstanceWithHold(BigDecimal amountHeld) {
+        Wallet wallet = createWalletInstance();
+        wallet.holdAmount(amountHeld);
+
+        return wallet;
+    }
+
+    private Hold createHoldInstance(BigDecimal amount) {
+        return new Hold(MOCK_HOLD_ID, MOCK_WALLET_ID, amount, HoldStatus.OPEN, Instant.now().plusSeconds(900));
+    }
+
     private Wallet createWalletInstance() {
         Wallet wallet = new Wallet();
         wallet.setId(MOCK_WALLET_ID);
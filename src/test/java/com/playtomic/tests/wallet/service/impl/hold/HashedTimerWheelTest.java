@@ -0,0 +1,67 @@
+package com.playtomic.tests.wallet.service.impl.hold;
+
+import com.playtomic.tests.wallet.service.hold.HashedTimerWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashedTimerWheelTest {
+    private final HashedTimerWheel timerWheel = new HashedTimerWheel(10, TimeUnit.MILLISECONDS, 16, Runnable::run);
+
+    @AfterEach
+    public void tearDown() {
+        timerWheel.stop();
+    }
+
+    @Test
+    public void scheduledTaskRunsAfterItsDelay() throws InterruptedException {
+        // Arrange
+        CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.nanoTime();
+
+        // Act
+        timerWheel.schedule(latch::countDown, 300, TimeUnit.MILLISECONDS);
+
+        // Assert
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 300);
+    }
+
+    @Test
+    public void cancelledTaskDoesNotRun() throws InterruptedException {
+        // Arrange
+        AtomicInteger numberOfRuns = new AtomicInteger();
+        HashedTimerWheel.Timeout timeout =
+                timerWheel.schedule(numberOfRuns::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+
+        // Act
+        boolean cancelled = timeout.cancel();
+        Thread.sleep(300);
+
+        // Assert
+        Assertions.assertTrue(cancelled);
+        Assertions.assertEquals(0, numberOfRuns.get());
+        Assertions.assertEquals(0, timerWheel.getNumberOfPendingTimeouts());
+    }
+
+    @Test
+    public void manyTasksSpanningSeveralRoundsOfTheWheelAllRun() throws InterruptedException {
+        // Arrange
+        int numberOfTasks = 200000;
+        CountDownLatch latch = new CountDownLatch(numberOfTasks);
+
+        // Act
+        for (int i = 0; i < numberOfTasks; i++) {
+            timerWheel.schedule(latch::countDown, ThreadLocalRandom.current().nextInt(500), TimeUnit.MILLISECONDS);
+        }
+
+        // Assert
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, timerWheel.getNumberOfPendingTimeouts());
+    }
+}
@@ -0,0 +1,164 @@
+package com.playtomic.tests.wallet.service.impl.hotkey;
+
+import com.playtomic.tests.wallet.service.hotkey.HotWallet;
+import com.playtomic.tests.wallet.service.hotkey.HotWalletTracker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class HotWalletTrackerTest {
+    private static final int NUMBER_OF_HOT_WALLETS = 10;
+    private static final int WINDOW_IN_SECONDS = 60;
+
+    private final AtomicLong currentTimeMillis = new AtomicLong(1_000_000_000L);
+    private final HotWalletTracker hotWalletTracker =
+            new HotWalletTracker(true, NUMBER_OF_HOT_WALLETS, WINDOW_IN_SECONDS, 6, 2048, 1, currentTimeMillis::get);
+
+    @Test
+    public void hotWalletsAmongManyColdOnesAreReportedWithTheirLockWait() {
+        // Arrange
+        Random random = new Random(42);
+        List<String> hotWalletIds = createWalletIds(NUMBER_OF_HOT_WALLETS);
+        List<String> coldWalletIds = createWalletIds(100000);
+
+        // Act
+        for (int i = 0; i < 1000000; i++) {
+            if (random.nextInt(100) < 30) {
+                hotWalletTracker.record(hotWalletIds.get(random.nextInt(NUMBER_OF_HOT_WALLETS)),
+                                        TimeUnit.MILLISECONDS.toNanos(2));
+            } else {
+                hotWalletTracker.record(coldWalletIds.get(random.nextInt(coldWalletIds.size())), 0);
+            }
+
+            if (i % 20000 == 0) {
+                currentTimeMillis.addAndGet(1000);
+            }
+        }
+
+        // Assert
+        List<HotWallet> hotWallets = hotWalletTracker.getHotWallets();
+        Set<String> reportedWalletIds = hotWallets.stream().map(HotWallet::getWalletId).collect(Collectors.toSet());
+
+        Assertions.assertEquals(NUMBER_OF_HOT_WALLETS, hotWallets.size());
+        Assertions.assertTrue(reportedWalletIds.containsAll(hotWalletIds));
+
+        for (HotWallet hotWallet : hotWallets) {
+            Assertions.assertTrue(hotWallet.getRequestsPerSecond() > 0);
+            Assertions.assertEquals(2, hotWallet.getAverageLockWaitInMillis(), 0.1);
+        }
+    }
+
+    @Test
+    public void sampledHotWalletsAreReportedWithScaledCounts() {
+        // Arrange
+        HotWalletTracker sampledTracker = new HotWalletTracker(true, NUMBER_OF_HOT_WALLETS, WINDOW_IN_SECONDS, 6,
+                                                               2048, 16, currentTimeMillis::get);
+        currentTimeMillis.addAndGet(TimeUnit.SECONDS.toMillis(WINDOW_IN_SECONDS));
+
+        // Act
+        for (int i = 0; i < 100000; i++) {
+            sampledTracker.record("wallet-a", TimeUnit.MILLISECONDS.toNanos(2));
+            sampledTracker.record(UUID.randomUUID().toString(), 0);
+        }
+
+        // Assert
+        List<HotWallet> hotWallets = sampledTracker.getHotWallets();
+
+        Assertions.assertEquals("wallet-a", hotWallets.get(0).getWalletId());
+        Assertions.assertEquals(100000, hotWallets.get(0).getNumberOfRequests(), 5000);
+        Assertions.assertEquals(2, hotWallets.get(0).getAverageLockWaitInMillis(), 0.001);
+    }
+
+    @Test
+    public void countsAreExactWhenFewWalletsAreRecorded() {
+        // Arrange
+        currentTimeMillis.addAndGet(TimeUnit.SECONDS.toMillis(WINDOW_IN_SECONDS));
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            hotWalletTracker.record("wallet-a", TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            hotWalletTracker.record("wallet-b", TimeUnit.MILLISECONDS.toNanos(3));
+        }
+
+        // Assert
+        List<HotWallet> hotWallets = hotWalletTracker.getHotWallets();
+
+        Assertions.assertEquals("wallet-a", hotWallets.get(0).getWalletId());
+        Assertions.assertEquals(300, hotWallets.get(0).getNumberOfRequests());
+        Assertions.assertEquals(1, hotWallets.get(0).getAverageLockWaitInMillis(), 0.001);
+        Assertions.assertEquals("wallet-b", hotWallets.get(1).getWalletId());
+        Assertions.assertEquals(100, hotWallets.get(1).getNumberOfRequests());
+        Assertions.assertEquals(3, hotWallets.get(1).getAverageLockWaitInMillis(), 0.001);
+    }
+
+    @Test
+    public void requestsOlderThanTheWindowAreForgotten() {
+        // Arrange
+        hotWalletTracker.record("wallet-a", 0);
+        currentTimeMillis.addAndGet(TimeUnit.SECONDS.toMillis(30));
+        hotWalletTracker.record("wallet-b", 0);
+
+        // Act
+        currentTimeMillis.addAndGet(TimeUnit.SECONDS.toMillis(45));
+        List<HotWallet> hotWallets = hotWalletTracker.getHotWallets();
+
+        // Assert
+        Assertions.assertEquals(1, hotWallets.size());
+        Assertions.assertEquals("wallet-b", hotWallets.get(0).getWalletId());
+    }
+
+    @Test
+    public void requestTimedBeforeItsBucketWasReusedDoesNotClearTheNewerCounts() {
+        // Arrange
+        long startTime = currentTimeMillis.get();
+        currentTimeMillis.addAndGet(TimeUnit.SECONDS.toMillis(WINDOW_IN_SECONDS));
+        hotWalletTracker.record("wallet-a", 0);
+        hotWalletTracker.record("wallet-a", 0);
+
+        // Act
+        long currentTime = currentTimeMillis.getAndSet(startTime);
+        hotWalletTracker.record("wallet-b", 0);
+        currentTimeMillis.set(currentTime);
+
+        // Assert
+        List<HotWallet> hotWallets = hotWalletTracker.getHotWallets();
+
+        Assertions.assertEquals(1, hotWallets.size());
+        Assertions.assertEquals("wallet-a", hotWallets.get(0).getWalletId());
+        Assertions.assertEquals(2, hotWallets.get(0).getNumberOfRequests());
+    }
+
+    @Test
+    public void disabledTrackerRecordsNothing() {
+        // Arrange
+        HotWalletTracker disabledTracker = new HotWalletTracker(false, NUMBER_OF_HOT_WALLETS, WINDOW_IN_SECONDS, 6,
+                                                                2048, 1, currentTimeMillis::get);
+
+        // Act
+        disabledTracker.record("wallet-a", 0);
+
+        // Assert
+        Assertions.assertTrue(disabledTracker.getHotWallets().isEmpty());
+    }
+
+    private List<String> createWalletIds(int numberOfWallets) {
+        List<String> walletIds = new ArrayList<>();
+
+        for (int i = 0; i < numberOfWallets; i++) {
+            walletIds.add(UUID.randomUUID().toString());
+        }
+
+        return walletIds;
+    }
+}
@@ -0,0 +1,67 @@
+package com.playtomic.tests.wallet.service.impl.index;
+
+import com.playtomic.tests.wallet.service.index.WalletIdIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class WalletIdIndexTest {
+    private static final int NUMBER_OF_WALLETS = 10000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WalletIdIndex walletIdIndex =
+            new WalletIdIndex(meterRegistry, NUMBER_OF_WALLETS, FALSE_POSITIVE_PROBABILITY);
+
+    @Test
+    public void indexThatIsNotReadyDoesNotRejectAnyId() {
+        // Act && Assert
+        Assertions.assertTrue(walletIdIndex.mightContain(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void indexNeverRejectsAnIdThatWasAdded() {
+        // Arrange
+        List<String> walletIds = createWalletIds(NUMBER_OF_WALLETS);
+        walletIds.forEach(walletIdIndex::add);
+        walletIdIndex.markReady();
+
+        // Act && Assert
+        walletIds.forEach(walletId -> Assertions.assertTrue(walletIdIndex.mightContain(walletId)));
+    }
+
+    @Test
+    public void indexRejectsMostUnknownIdsAndReportsItsFalsePositiveRate() {
+        // Arrange
+        createWalletIds(NUMBER_OF_WALLETS).forEach(walletIdIndex::add);
+        walletIdIndex.markReady();
+
+        // Act
+        for (String unknownWalletId : createWalletIds(NUMBER_OF_WALLETS)) {
+            if (walletIdIndex.mightContain(unknownWalletId)) {
+                walletIdIndex.recordMiss(unknownWalletId);
+            }
+        }
+
+        // Assert
+        double falsePositiveRate = walletIdIndex.getFalsePositiveRate();
+        Assertions.assertTrue(falsePositiveRate < FALSE_POSITIVE_PROBABILITY * 3,
+                              "False positive rate too high: " + falsePositiveRate);
+        Assertions.assertEquals(falsePositiveRate,
+                                meterRegistry.get("wallet.index.false.positive.rate").gauge().value());
+    }
+
+    private List<String> createWalletIds(int numberOfWalletIds) {
+        List<String> walletIds = new ArrayList<>(numberOfWalletIds);
+
+        for (int i = 0; i < numberOfWalletIds; i++) {
+            walletIds.add(UUID.randomUUID().toString());
+        }
+
+        return walletIds;
+    }
+}
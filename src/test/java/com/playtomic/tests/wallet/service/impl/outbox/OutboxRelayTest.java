@@ -0,0 +1,140 @@
+package com.playtomic.tests.wallet.service.impl.outbox;
+
+import com.playtomic.tests.wallet.dto.OutboxOffset;
+import com.playtomic.tests.wallet.dto.WalletEvent;
+import com.playtomic.tests.wallet.dto.WalletEventType;
+import com.playtomic.tests.wallet.repository.OutboxOffsetRepository;
+import com.playtomic.tests.wallet.repository.WalletEventRepository;
+import com.playtomic.tests.wallet.service.outbox.InMemoryWalletEventSink;
+import com.playtomic.tests.wallet.service.outbox.OutboxRelay;
+import com.playtomic.tests.wallet.service.outbox.WalletEventSink;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+    private static final String MOCK_WALLET_ID = "e7c08fea-447b-4744-bbda-a81b6944bd74";
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private WalletEventRepository walletEventRepository;
+    @Mock
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    private InMemoryWalletEventSink walletEventSink;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        walletEventSink = new InMemoryWalletEventSink(100);
+        outboxRelay = new OutboxRelay(walletEventRepository, outboxOffsetRepository, walletEventSink, BATCH_SIZE);
+    }
+
+    @Test
+    public void relayNextBatchPublishesEventsAfterTheOffsetAndAdvancesIt() {
+        // Arrange
+        List<WalletEvent> events = Arrays.asList(createEventInstance(8L), createEventInstance(9L));
+
+        when(outboxOffsetRepository.findById("memory")).thenReturn(Optional.of(new OutboxOffset("memory", 7L)));
+        when(walletEventRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), any())).thenReturn(events);
+        when(outboxOffsetRepository.findMinLastDeliveredId()).thenReturn(9L);
+
+        // Act
+        int numberOfEventsDelivered = outboxRelay.relayNextBatch();
+
+        // Assert
+        Assertions.assertEquals(2, numberOfEventsDelivered);
+        Assertions.assertEquals(events, walletEventSink.getPublishedEvents());
+
+        ArgumentCaptor<OutboxOffset> offsetCaptor = ArgumentCaptor.forClass(OutboxOffset.class);
+        verify(outboxOffsetRepository).save(offsetCaptor.capture());
+        Assertions.assertEquals(9L, offsetCaptor.getValue().getLastDeliveredId());
+        verify(walletEventRepository).deleteUpTo(9L);
+    }
+
+    @Test
+    public void relayNextBatchKeepsTheEventsALaggingSinkHasNotReceived() {
+        // Arrange
+        when(outboxOffsetRepository.findById("memory")).thenReturn(Optional.of(new OutboxOffset("memory", 7L)));
+        when(walletEventRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), any()))
+                .thenReturn(Arrays.asList(createEventInstance(8L), createEventInstance(9L)));
+        when(outboxOffsetRepository.findMinLastDeliveredId()).thenReturn(4L);
+
+        // Act
+        outboxRelay.relayNextBatch();
+
+        // Assert
+        verify(walletEventRepository).deleteUpTo(4L);
+        verify(walletEventRepository, never()).deleteUpTo(9L);
+    }
+
+    @Test
+    public void relayEventsDrainsFullBatchesUntilTheOutboxIsEmpty() {
+        // Arrange
+        when(outboxOffsetRepository.findById("memory"))
+                .thenReturn(Optional.empty(), Optional.of(new OutboxOffset("memory", 2L)));
+        when(outboxOffsetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(outboxOffsetRepository.findMinLastDeliveredId()).thenReturn(2L, 3L);
+        when(walletEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(Arrays.asList(createEventInstance(1L), createEventInstance(2L)));
+        when(walletEventRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(Collections.singletonList(createEventInstance(3L)));
+
+        // Act
+        outboxRelay.relayEvents();
+
+        // Assert
+        Assertions.assertEquals(3, walletEventSink.getPublishedEvents().size());
+        verify(walletEventRepository).deleteUpTo(3L);
+    }
+
+    @Test
+    public void relayNextBatchWhenSinkFailsDoesNotAdvanceTheOffset() {
+        // Arrange
+        WalletEventSink failingSink = mock(WalletEventSink.class);
+        OutboxRelay failingRelay = new OutboxRelay(walletEventRepository, outboxOffsetRepository, failingSink,
+                                                   BATCH_SIZE);
+
+        when(failingSink.getName()).thenReturn("failing");
+        when(outboxOffsetRepository.findById("failing")).thenReturn(Optional.empty());
+        when(outboxOffsetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(Collections.singletonList(createEventInstance(1L)));
+        doThrow(new IllegalStateException("Sink is down")).when(failingSink).publish(any());
+
+        // Act
+        failingRelay.relayEvents();
+
+        // Assert
+        ArgumentCaptor<OutboxOffset> offsetCaptor = ArgumentCaptor.forClass(OutboxOffset.class);
+        verify(outboxOffsetRepository).save(offsetCaptor.capture());
+        Assertions.assertEquals(0L, offsetCaptor.getValue().getLastDeliveredId());
+        verify(walletEventRepository, never()).deleteUpTo(anyLong());
+    }
+
+    private WalletEvent createEventInstance(Long id) {
+        return new WalletEvent(id, MOCK_WALLET_ID, WalletEventType.CHARGED, BigDecimal.TEN, new BigDecimal(990),
+                               BigDecimal.ZERO, Instant.now());
+    }
+}